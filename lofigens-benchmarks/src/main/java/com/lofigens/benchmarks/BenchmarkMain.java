@@ -0,0 +1,186 @@
+package com.lofigens.benchmarks;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Entry point of the benchmark jar.
+ *
+ * Without one of the options below, all arguments are passed to JMH as usual.
+ * <ul>
+ *   <li>{@code --record <file>} runs the benchmarks and writes their scores and score errors as
+ *       the new baseline</li>
+ *   <li>{@code --check <file>} runs the benchmarks that have a baseline and exits with status 1
+ *       if any result fell below its floor, or if a parameter combination has no baseline yet</li>
+ *   <li>{@code --tolerance <fraction>} allowed drop for --check, 0.10 by default</li>
+ *   <li>{@code --include <regex>} only run matching benchmarks</li>
+ * </ul>
+ * A score's floor is its baseline minus the larger of the tolerance and the error JMH measured
+ * for the baseline (99.9% confidence interval). A result only fails when its own confidence
+ * interval lies entirely below the floor, so runs are not failed for noise between forks.
+ * Baselines are only comparable on the machine they were recorded on.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        String record = null;
+        String check = null;
+        double tolerance = 0.10;
+        String include = null;
+
+        List<String> jmhArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--record" -> record = args[++i];
+                case "--check" -> check = args[++i];
+                case "--tolerance" -> tolerance = Double.parseDouble(args[++i]);
+                case "--include" -> include = args[++i];
+                default -> jmhArgs.add(args[i]);
+            }
+        }
+
+        if (record == null && check == null) {
+            org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+            return;
+        }
+
+        Properties baseline = null;
+        if (check != null) {
+            baseline = readBaseline(Path.of(check));
+            if (baseline == null) {
+                System.exit(1);
+            }
+            if (include == null) {
+                include = baselineBenchmarks(baseline);
+            }
+        }
+        if (include == null) {
+            include = BenchmarkMain.class.getPackageName() + ".*";
+        }
+
+        Map<String, double[]> scores = run(include);
+        if (record != null) {
+            writeBaseline(Path.of(record), scores);
+            System.out.println("Recorded " + scores.size() + " baselines in " + record);
+        } else if (!check(baseline, scores, tolerance)) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Run the matching benchmarks and collect their scores and score errors by key
+     */
+    private static Map<String, double[]> run(String include) throws RunnerException {
+        Options options = new OptionsBuilder().include(include).build();
+
+        Map<String, double[]> scores = new TreeMap<>();
+        for (RunResult result : new Runner(options).run()) {
+            double error = result.getPrimaryResult().getScoreError();
+            scores.put(key(result.getParams()), new double[] {
+                result.getPrimaryResult().getScore(), Double.isNaN(error) ? 0 : error });
+        }
+        return scores;
+    }
+
+    /**
+     * Build a pattern matching the benchmark methods that have a baseline, e.g. SchedulerBenchmark.advance
+     */
+    private static String baselineBenchmarks(Properties baseline) {
+        StringJoiner joiner = new StringJoiner("|", BenchmarkMain.class.getPackageName().replace(".", "\\.") + "\\.(", ")$");
+        Set<String> benchmarks = new TreeSet<>();
+        for (String key : baseline.stringPropertyNames()) {
+            benchmarks.add(key.substring(0, key.indexOf('[')).replace(".", "\\."));
+        }
+        benchmarks.forEach(joiner::add);
+        return joiner.toString();
+    }
+
+    /**
+     * Name a result by benchmark and parameters, e.g. SchedulerBenchmark.advance[backend=wheel,generators=10000]
+     */
+    private static String key(BenchmarkParams params) {
+        String benchmark = params.getBenchmark();
+        StringJoiner joiner = new StringJoiner(",", "[", "]");
+        for (String name : new TreeSet<>(params.getParamsKeys())) {
+            joiner.add(name + "=" + params.getParam(name));
+        }
+        return benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1) + joiner;
+    }
+
+    /**
+     * Read a baseline file
+     *
+     * @return the baselines, or null if there is no file
+     */
+    private static Properties readBaseline(Path baselineFile) throws IOException {
+        if (!Files.exists(baselineFile)) {
+            System.err.println("No baseline at " + baselineFile + ", record one with --record first");
+            return null;
+        }
+
+        Properties baseline = new Properties();
+        try (Reader reader = Files.newBufferedReader(baselineFile)) {
+            baseline.load(reader);
+        }
+        return baseline;
+    }
+
+    /**
+     * Compare scores against a baseline, all benchmarks measure throughput so higher is better
+     *
+     * @return true if no benchmark regressed
+     */
+    private static boolean check(Properties baseline, Map<String, double[]> scores, double tolerance) {
+        boolean passed = true;
+        for (Map.Entry<String, double[]> entry : scores.entrySet()) {
+            String expected = baseline.getProperty(entry.getKey());
+            if (expected == null) {
+                System.err.println("MISSING   " + entry.getKey() + " has no baseline");
+                passed = false;
+                continue;
+            }
+
+            // "score error", older baselines only have the score
+            String[] parts = expected.trim().split("\\s+");
+            double score = Double.parseDouble(parts[0]);
+            double error = parts.length > 1 ? Double.parseDouble(parts[1]) : 0;
+            double floor = score - Math.max(score * tolerance, error);
+
+            double measured = entry.getValue()[0];
+            double measuredError = entry.getValue()[1];
+            boolean regressed = measured + measuredError < floor;
+            System.out.printf(Locale.ROOT, "%-9s %s: %.2f ± %.2f ops/s (baseline %.2f ± %.2f, floor %.2f)%n",
+                regressed ? "REGRESSED" : "OK", entry.getKey(), measured, measuredError, score, error, floor);
+            passed &= !regressed;
+        }
+        return passed;
+    }
+
+    private static void writeBaseline(Path baselineFile, Map<String, double[]> scores) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(baselineFile)) {
+            writer.write("# Throughput baselines written by BenchmarkMain --record: score and 99.9% error in ops/s\n");
+            for (Map.Entry<String, double[]> entry : scores.entrySet()) {
+                writer.write(escape(entry.getKey()) + "=" + String.format(Locale.ROOT, "%.2f %.2f",
+                    entry.getValue()[0], entry.getValue()[1]) + "\n");
+            }
+        }
+    }
+
+    /**
+     * Escape the characters Properties treats specially in keys
+     */
+    private static String escape(String key) {
+        return key.replace("=", "\\=").replace(":", "\\:");
+    }
+}
@@ -0,0 +1,161 @@
+package com.lofigens.benchmarks;
+
+import com.lofigens.LofiGens;
+import com.lofigens.models.Generator;
+import com.lofigens.models.PlayerData;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+import org.mockbukkit.mockbukkit.world.WorldMock;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A LofiGens instance running on MockBukkit, with online players and placed generators.
+ *
+ * Generators are placed on a grid at y = 64, spread round-robin over the players and over a
+ * fixed mix of item, EXP and unstable generators, so every benchmark sees the same layout.
+ */
+public class BenchmarkServer {
+
+    /** Generator IDs from the default config.yml, placed in turn */
+    private static final String[] GENERATOR_MIX = {
+        "coal_generator", "iron_generator", "exp_generator", "unstable_generator"
+    };
+    private static final int GRID_WIDTH = 512;
+
+    private final ServerMock server;
+    private final LofiGens plugin;
+    private final WorldMock world;
+    private final List<PlayerMock> players;
+    private final List<Generator> generators;
+
+    private BenchmarkServer(ServerMock server, LofiGens plugin, WorldMock world) {
+        this.server = server;
+        this.plugin = plugin;
+        this.world = world;
+        this.players = new ArrayList<>();
+        this.generators = new ArrayList<>();
+    }
+
+    /**
+     * Boot the plugin and place generators for online players, with holograms turned off
+     */
+    public static BenchmarkServer start(int playerCount, int generatorCount) {
+        return start(playerCount, generatorCount, false);
+    }
+
+    /**
+     * Boot the plugin and place generators for online players
+     */
+    public static BenchmarkServer start(int playerCount, int generatorCount, boolean holograms) {
+        ServerMock server = MockBukkit.mock();
+        WorldMock world = server.addSimpleWorld("world");
+        LofiGens plugin = MockBukkit.load(LofiGens.class);
+
+        BenchmarkServer benchmarkServer = new BenchmarkServer(server, plugin, world);
+        benchmarkServer.addPlayers(playerCount, holograms);
+        benchmarkServer.placeGenerators(generatorCount);
+        return benchmarkServer;
+    }
+
+    private void addPlayers(int count, boolean holograms) {
+        for (int i = 0; i < count; i++) {
+            PlayerMock player = server.addPlayer("Player" + i);
+            PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(player);
+            playerData.setMaxGeneratorSlots(Integer.MAX_VALUE);
+            playerData.setGeneratorSlots(Integer.MAX_VALUE);
+            playerData.setHologramsEnabled(holograms);
+            players.add(player);
+        }
+    }
+
+    private void placeGenerators(int count) {
+        if (players.isEmpty()) return;
+
+        for (int i = 0; i < count; i++) {
+            Player owner = players.get(i % players.size());
+            Location location = new Location(world, i % GRID_WIDTH, 64, i / GRID_WIDTH);
+            if (!plugin.getGeneratorManager().placeGenerator(owner, GENERATOR_MIX[i % GENERATOR_MIX.length], location)) {
+                throw new IllegalStateException("Could not place generator " + i);
+            }
+            generators.add(plugin.getGeneratorManager().getGenerator(location));
+        }
+
+        // Placement messages are not part of any benchmark
+        for (PlayerMock player : players) {
+            while (player.nextMessage() != null) {
+                // Drain
+            }
+        }
+    }
+
+    /**
+     * Empty inventories and remove dropped items, so long runs don't slow down as they fill up
+     */
+    public void clearOutput() {
+        for (PlayerMock player : players) {
+            player.getInventory().clear();
+        }
+        clearDrops();
+    }
+
+    /**
+     * Remove dropped items and read chat messages, as items despawning and clients reading chat would
+     */
+    public void clearDrops() {
+        for (PlayerMock player : players) {
+            while (player.nextMessage() != null) {
+                // Drain
+            }
+        }
+        for (Entity entity : new ArrayList<>(world.getEntities())) {
+            if (!(entity instanceof Player)) {
+                entity.remove();
+            }
+        }
+    }
+
+    /**
+     * Repair every broken generator and put it back on the scheduler
+     */
+    public void repairAll() {
+        for (Generator generator : generators) {
+            if (!generator.isWorking()) {
+                generator.repair();
+                plugin.getGeneratorManager().scheduleGenerator(generator);
+            }
+        }
+    }
+
+    /**
+     * Stop the plugin and the mock server
+     */
+    public void stop() {
+        MockBukkit.unmock();
+    }
+
+    /**
+     * Get a handle to a private method of the plugin, for phases that have no public entry point
+     */
+    public static MethodHandle privateMethod(Class<?> owner, String name, MethodType type) {
+        try {
+            return MethodHandles.privateLookupIn(owner, MethodHandles.lookup()).findVirtual(owner, name, type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Missing method " + owner.getSimpleName() + "." + name, e);
+        }
+    }
+
+    public ServerMock getServer() { return server; }
+    public LofiGens getPlugin() { return plugin; }
+    public WorldMock getWorld() { return world; }
+    public List<PlayerMock> getPlayers() { return players; }
+    public List<Generator> getGenerators() { return generators; }
+}
@@ -0,0 +1,108 @@
+package com.lofigens.benchmarks;
+
+import com.lofigens.models.Generator;
+import com.lofigens.models.GeneratorDefinition;
+import com.lofigens.utils.BlockKeyMap;
+import org.bukkit.Location;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.world.WorldMock;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The placed generator map against the ConcurrentHashMap keyed by Location it replaced:
+ * looking up a generator by a freshly built location, as block events do, and visiting
+ * every generator. Only needs a mock world, the plugin is not loaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BlockKeyMapBenchmark {
+
+    private static final int GRID_WIDTH = 512;
+    private static final int LOOKUPS = 4096;
+
+    @Param({"10000", "100000"})
+    public int generators;
+
+    private BlockKeyMap<Generator> blockKeyMap;
+    private Map<Location, Generator> locationMap;
+    private Location[] lookups;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ServerMock server = MockBukkit.mock();
+        WorldMock world = server.addSimpleWorld("world");
+
+        MemoryConfiguration section = new MemoryConfiguration();
+        section.set("type", "ITEM");
+        section.set("item", "COBBLESTONE");
+        GeneratorDefinition definition = new GeneratorDefinition("benchmark_generator", section, false);
+
+        blockKeyMap = new BlockKeyMap<>();
+        locationMap = new ConcurrentHashMap<>();
+        UUID owner = UUID.randomUUID();
+        for (int i = 0; i < generators; i++) {
+            Location location = new Location(world, i % GRID_WIDTH, 64, i / GRID_WIDTH);
+            Generator generator = new Generator(definition, owner, location);
+            blockKeyMap.put(location, generator);
+            locationMap.put(location, generator);
+        }
+
+        // Events hand over new location objects, never the ones used as keys
+        Random random = new Random(42);
+        lookups = new Location[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            int index = random.nextInt(generators);
+            lookups[i] = new Location(world, index % GRID_WIDTH, 64, index / GRID_WIDTH);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    @Benchmark
+    public Generator lookupBlockKeyMap() {
+        return blockKeyMap.get(nextLookup());
+    }
+
+    @Benchmark
+    public Generator lookupConcurrentHashMap() {
+        return locationMap.get(nextLookup());
+    }
+
+    @Benchmark
+    public long iterateBlockKeyMap() {
+        long[] total = new long[1];
+        blockKeyMap.forEach(generator -> total[0] += generator.getCurrentGenerations());
+        return total[0];
+    }
+
+    @Benchmark
+    public long iterateConcurrentHashMap() {
+        long total = 0;
+        for (Generator generator : locationMap.values()) {
+            total += generator.getCurrentGenerations();
+        }
+        return total;
+    }
+
+    private Location nextLookup() {
+        Location location = lookups[next];
+        next = (next + 1) & (LOOKUPS - 1);
+        return location;
+    }
+}
@@ -0,0 +1,80 @@
+package com.lofigens.benchmarks;
+
+import com.lofigens.models.Generator;
+import com.lofigens.models.Hologram;
+import com.lofigens.utils.HologramRenderer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-generator checks and hologram text building, over every placed generator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorStateBenchmark {
+
+    @Param({"1000", "10000"})
+    public int generators;
+
+    private BenchmarkServer server;
+    private List<Generator> placed;
+    private List<Hologram> holograms;
+    private HologramRenderer renderer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = BenchmarkServer.start(10, generators);
+        placed = server.getGenerators();
+        renderer = new HologramRenderer();
+
+        // Holograms nobody is near, so rendering only builds text
+        holograms = new ArrayList<>(placed.size());
+        for (Generator generator : placed) {
+            holograms.add(new Hologram(server.getPlugin(), generator.getLocation(), generator.getLocation().clone().add(0.5, 1.5, 0.5)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public int isReadyToGenerate() {
+        int ready = 0;
+        for (Generator generator : placed) {
+            if (generator.isReadyToGenerate()) ready++;
+        }
+        return ready;
+    }
+
+    /**
+     * Render every hologram from scratch, as after a reload or when a player walks up
+     */
+    @Benchmark
+    public void renderHologramsCold(Blackhole blackhole) {
+        for (int i = 0; i < placed.size(); i++) {
+            Hologram hologram = holograms.get(i);
+            hologram.invalidate();
+            blackhole.consume(renderer.render(placed.get(i), hologram));
+        }
+    }
+
+    /**
+     * Render every hologram again, only countdowns that moved are rebuilt
+     */
+    @Benchmark
+    public void renderHologramsWarm(Blackhole blackhole) {
+        for (int i = 0; i < placed.size(); i++) {
+            blackhole.consume(renderer.render(placed.get(i), holograms.get(i)));
+        }
+    }
+}
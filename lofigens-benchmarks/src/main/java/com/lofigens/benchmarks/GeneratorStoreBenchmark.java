@@ -0,0 +1,89 @@
+package com.lofigens.benchmarks;
+
+import com.lofigens.models.Generator;
+import com.lofigens.storage.GeneratorStore;
+import com.lofigens.storage.GeneratorStore.StoredGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading and saving the generator region files.
+ *
+ * Loading reads and decodes a region with a fresh store each time, as the first chunk load of
+ * a region does. Saving measures the main-thread part, encoding every dirty region; the file
+ * writes run on the store's writer thread as they do on a server. The benchmark server places
+ * its generators in a 512 block wide grid, so they all share region (0, 0).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GeneratorStoreBenchmark {
+
+    @Param({"10000", "100000"})
+    public int generators;
+
+    private BenchmarkServer server;
+    private GeneratorStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = BenchmarkServer.start(1, generators);
+        store = server.getPlugin().getGeneratorManager().getStore();
+
+        // Write the region once and wait for it, so every load reads the same file
+        GeneratorStore writer = new GeneratorStore(server.getPlugin());
+        for (Generator generator : server.getGenerators()) {
+            writer.track(generator);
+        }
+        writer.shutdown();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public List<StoredGenerator> loadRegion(FreshStore fresh) {
+        return fresh.loader.loadRegion(server.getWorld(), 0, 0);
+    }
+
+    @Benchmark
+    public void saveDirtyRegions(DirtyRegions dirty) {
+        store.saveDirtyRegions();
+    }
+
+    /**
+     * A store that has not loaded any region yet. It never writes, so its writer thread is never
+     * started and it doesn't need to be shut down.
+     */
+    @State(Scope.Thread)
+    public static class FreshStore {
+
+        private GeneratorStore loader;
+
+        @Setup(Level.Invocation)
+        public void create(GeneratorStoreBenchmark benchmark) {
+            loader = new GeneratorStore(benchmark.server.getPlugin());
+        }
+    }
+
+    /**
+     * Every generator changed since the last save
+     */
+    @State(Scope.Thread)
+    public static class DirtyRegions {
+
+        @Setup(Level.Invocation)
+        public void markChanged(GeneratorStoreBenchmark benchmark) {
+            for (Generator generator : benchmark.server.getGenerators()) {
+                benchmark.store.markDirty(generator);
+            }
+        }
+    }
+}
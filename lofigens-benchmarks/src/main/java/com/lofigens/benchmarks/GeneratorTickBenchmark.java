@@ -0,0 +1,54 @@
+package com.lofigens.benchmarks;
+
+import com.lofigens.managers.GeneratorManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One server tick of generator processing: scheduler advance, dispatch, compute and apply.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorTickBenchmark {
+
+    private static final MethodHandle PROCESS_ALL_GENERATORS = BenchmarkServer.privateMethod(
+        GeneratorManager.class, "processAllGenerators", MethodType.methodType(void.class));
+
+    @Param({"1000", "10000", "100000"})
+    public int generators;
+
+    @Param({"10", "100"})
+    public int players;
+
+    private BenchmarkServer server;
+    private GeneratorManager generatorManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = BenchmarkServer.start(players, generators);
+        generatorManager = server.getPlugin().getGeneratorManager();
+    }
+
+    @Setup(Level.Iteration)
+    public void clearOutput() {
+        server.clearOutput();
+        server.repairAll(); // Unstable generators break over time and would stop producing
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public void processAllGenerators() throws Throwable {
+        PROCESS_ALL_GENERATORS.invokeExact(generatorManager);
+    }
+}
@@ -0,0 +1,65 @@
+package com.lofigens.benchmarks;
+
+import com.lofigens.placeholders.LofiGensPlaceholders;
+import org.bukkit.entity.Player;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A scoreboard refresh: every online player requests every placeholder once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlaceholderBenchmark {
+
+    private static final String[] KEYS = {
+        "amount", "amount_max", "total_items", "total_exp", "jackpot_contributions",
+        "jackpot_amount", "jackpot_last_winner", "jackpot_last_amount",
+        "event_doubleitem_status", "event_doubleitem_time",
+        "top_player_1", "top_amount_1", "top_player_5", "top_amount_5"
+    };
+
+    @Param({"100", "1000"})
+    public int players;
+
+    /** Cache lifetime of every placeholder family in milliseconds, 0 resolves on every request */
+    @Param({"0", "1000"})
+    public long cacheTtl;
+
+    private BenchmarkServer server;
+    private LofiGensPlaceholders placeholders;
+    private List<PlayerMock> online;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = BenchmarkServer.start(players, players * 10);
+        online = server.getPlayers();
+
+        for (String family : new String[] {"player", "event", "top", "jackpot"}) {
+            server.getPlugin().getConfigManager().getConfig().set("placeholders.cache-ttl." + family, cacheTtl);
+        }
+        placeholders = new LofiGensPlaceholders(server.getPlugin());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public void refreshScoreboards(Blackhole blackhole) {
+        for (Player player : online) {
+            for (String key : KEYS) {
+                blackhole.consume(placeholders.onPlaceholderRequest(player, key));
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.lofigens.benchmarks;
+
+import com.lofigens.managers.PlayerDataManager;
+import com.lofigens.models.LeaderboardEntry;
+import com.lofigens.models.PlayerData;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leaderboard lookups and saving player data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlayerDataBenchmark {
+
+    @Param({"100", "1000"})
+    public int players;
+
+    private BenchmarkServer server;
+    private PlayerDataManager playerDataManager;
+    private List<PlayerData> playerData;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = BenchmarkServer.start(players, 0);
+        playerDataManager = server.getPlugin().getPlayerDataManager();
+        random = new Random(42);
+
+        playerData = new ArrayList<>(players);
+        for (Player player : server.getPlayers()) {
+            PlayerData data = playerDataManager.getPlayerData(player);
+            data.addItemsGenerated(random.nextInt(1_000_000));
+            playerData.add(data);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> getTopPlayersByItems() {
+        return playerDataManager.getTopPlayersByItems(10);
+    }
+
+    @Benchmark
+    public void saveAllData(ChangedPlayers changed) {
+        playerDataManager.saveAllData();
+    }
+
+    /**
+     * Every player changed since the last save, as on a busy server
+     */
+    @State(Scope.Thread)
+    public static class ChangedPlayers {
+
+        @Setup(Level.Invocation)
+        public void markChanged(PlayerDataBenchmark benchmark) {
+            for (PlayerData data : benchmark.playerData) {
+                data.addItemsGenerated(1 + benchmark.random.nextInt(64));
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.lofigens.benchmarks;
+
+import com.lofigens.models.Generator;
+import com.lofigens.models.GeneratorDefinition;
+import com.lofigens.scheduler.ColumnarScheduler;
+import com.lofigens.scheduler.GeneratorScheduler;
+import com.lofigens.scheduler.TimingWheel;
+import org.bukkit.Location;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One tick of each scheduler backend in steady state: take the due generators, update their
+ * generation counters and schedule them again one interval later. Also measures moving a
+ * random generator to another tick, as chunk unloads, parking and repairs do. Needs no
+ * server, the generators are never run.
+ *
+ * With a 5 second interval every generator in a bucket is due when the bucket is visited.
+ * With a 10 minute interval the generators are spread over several rotations of the 2048
+ * tick wheel, so most of each bucket is skipped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SchedulerBenchmark {
+
+    @Param({"wheel", "columnar"})
+    public String backend;
+
+    @Param({"10000", "100000", "1000000"})
+    public int generators;
+
+    /** Ticks between runs of a generator */
+    @Param({"100", "12000"})
+    public int interval;
+
+    private GeneratorScheduler scheduler;
+    private List<Generator> all;
+    private List<Generator> due;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scheduler = "columnar".equals(backend) ? new ColumnarScheduler(2048) : new TimingWheel(2048);
+        all = new ArrayList<>(generators);
+        due = new ArrayList<>();
+        random = new Random(42);
+
+        MemoryConfiguration section = new MemoryConfiguration();
+        section.set("type", "ITEM");
+        section.set("item", "COBBLESTONE");
+        section.set("spawn_interval", interval / 20);
+        GeneratorDefinition definition = new GeneratorDefinition("benchmark_generator", section, false);
+
+        UUID owner = UUID.randomUUID();
+        for (int i = 0; i < generators; i++) {
+            Generator generator = new Generator(definition, owner, new Location(null, i % 1024, 64, i / 1024));
+            all.add(generator);
+            scheduler.schedule(generator, 1 + random.nextInt(interval));
+        }
+    }
+
+    @Benchmark
+    public int advance() {
+        due.clear();
+        scheduler.advance(due);
+
+        // Read and update the hot fields the way dispatching and applying a generation does
+        int generations = 0;
+        for (int i = 0; i < due.size(); i++) {
+            Generator generator = due.get(i);
+            if (generator.getNextFireTick() < 0 && generator.isWorking()) {
+                generations += generator.getCurrentGenerations();
+                generator.setCurrentGenerations(generator.getCurrentGenerations() + 1);
+                scheduler.scheduleIn(generator, interval);
+            }
+        }
+        return generations;
+    }
+
+    @Benchmark
+    public boolean reschedule() {
+        Generator generator = all.get(random.nextInt(all.size()));
+        boolean scheduled = scheduler.unschedule(generator);
+        scheduler.scheduleIn(generator, 1 + random.nextInt(interval));
+        return scheduled;
+    }
+}
@@ -0,0 +1,154 @@
+package com.lofigens.benchmarks;
+
+import com.lofigens.LofiGens;
+import com.lofigens.managers.DeliveryManager;
+import com.lofigens.managers.GeneratorManager;
+import org.mockbukkit.mockbukkit.scheduler.BukkitSchedulerMock;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Offline load test: boots LofiGens on MockBukkit, places generators for simulated players
+ * and runs server ticks back to back, then reports how the ticks went.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.lofigens.benchmarks.Simulation \
+ *     --generators 100000 --players 200 --ticks 12000 [--warmup 1200] [--holograms]
+ * </pre>
+ *
+ * Every tick runs all of the plugin's tasks through the mock scheduler, so the numbers cover
+ * the generator task, delivery, holograms, saves and the rest together. Allocations are counted
+ * on the main thread per tick, and over all threads for the whole run. Dropped items are
+ * removed every 6000 ticks, as they would despawn on a real server.
+ */
+public class Simulation {
+
+    private static final long TICK_BUDGET_NANOS = 50_000_000L;
+    private static final int DESPAWN_TICKS = 6000;
+
+    public static void main(String[] args) {
+        int generators = 10_000;
+        int players = 100;
+        int ticks = 6000;
+        int warmup = 1200;
+        boolean holograms = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--generators" -> generators = Integer.parseInt(args[++i]);
+                case "--players" -> players = Integer.parseInt(args[++i]);
+                case "--ticks" -> ticks = Integer.parseInt(args[++i]);
+                case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                case "--holograms" -> holograms = true;
+                default -> {
+                    System.err.println("Unknown option " + args[i]);
+                    System.err.println("Options: --generators N --players M --ticks T [--warmup W] [--holograms]");
+                    System.exit(2);
+                }
+            }
+        }
+
+        if (ticks < 1 || generators < 0 || players < 1 || warmup < 0) {
+            System.err.println("Need at least one tick and one player");
+            System.exit(2);
+        }
+
+        new Simulation().run(generators, players, ticks, warmup, holograms);
+    }
+
+    private void run(int generatorCount, int playerCount, int ticks, int warmup, boolean holograms) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long mainThread = Thread.currentThread().threadId();
+
+        long setupStart = System.nanoTime();
+        BenchmarkServer server = BenchmarkServer.start(playerCount, generatorCount, holograms);
+        long setupNanos = System.nanoTime() - setupStart;
+
+        LofiGens plugin = server.getPlugin();
+        GeneratorManager generatorManager = plugin.getGeneratorManager();
+        DeliveryManager deliveryManager = plugin.getDeliveryManager();
+        BukkitSchedulerMock scheduler = server.getServer().getScheduler();
+
+        for (int tick = 0; tick < warmup; tick++) {
+            scheduler.performOneTick();
+        }
+
+        long[] tickNanos = new long[ticks];
+        long[] tickAllocations = new long[ticks];
+        long applied = 0;
+        long insertsBefore = deliveryManager.getInventoryInserts();
+        long dropsBefore = deliveryManager.getDroppedStacks();
+        long allocatedBefore = totalAllocatedBytes(threads);
+
+        for (int tick = 0; tick < ticks; tick++) {
+            long allocated = threads.getThreadAllocatedBytes(mainThread);
+            long start = System.nanoTime();
+            scheduler.performOneTick();
+            tickNanos[tick] = System.nanoTime() - start;
+            tickAllocations[tick] = threads.getThreadAllocatedBytes(mainThread) - allocated;
+            applied += generatorManager.getLastAppliedCount();
+
+            if ((warmup + tick + 1) % DESPAWN_TICKS == 0) {
+                server.clearDrops();
+            }
+        }
+
+        long allocatedTotal = totalAllocatedBytes(threads) - allocatedBefore;
+        long inserts = deliveryManager.getInventoryInserts() - insertsBefore;
+        long drops = deliveryManager.getDroppedStacks() - dropsBefore;
+
+        // Shutting down writes everything still dirty and waits for the writer threads
+        server.stop();
+        long generatorBytes = generatorManager.getStore().getTotalBytesWritten();
+        long playerBytes = plugin.getPlayerDataManager().getStore().getTotalBytesWritten();
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "Simulated %,d ticks with %,d generators and %,d players (setup %.1f s, %,d warmup ticks)%n",
+            ticks, generatorCount, playerCount, setupNanos / 1e9, warmup);
+        System.out.println();
+        System.out.println("Tick time");
+        printPercentiles(tickNanos, 1e6, "ms");
+        long overBudget = Arrays.stream(tickNanos).filter(nanos -> nanos > TICK_BUDGET_NANOS).count();
+        System.out.printf(Locale.ROOT, "  over 50 ms  %,d ticks (%.2f%%)%n", overBudget, 100.0 * overBudget / ticks);
+        System.out.println();
+        System.out.println("Main thread allocations per tick");
+        printPercentiles(tickAllocations, 1024, "KiB");
+        System.out.printf(Locale.ROOT, "  all threads %.1f KiB per tick%n", allocatedTotal / 1024.0 / ticks);
+        System.out.println();
+        System.out.println("Work");
+        System.out.printf(Locale.ROOT, "  generations applied  %,d (%.1f per tick)%n", applied, (double) applied / ticks);
+        System.out.printf(Locale.ROOT, "  inventory inserts    %,d (%.1f per tick)%n", inserts, (double) inserts / ticks);
+        System.out.printf(Locale.ROOT, "  dropped stacks       %,d%n", drops);
+        System.out.println();
+        System.out.println("Bytes written (whole run, including setup and shutdown)");
+        System.out.printf(Locale.ROOT, "  generator regions    %,d%n", generatorBytes);
+        System.out.printf(Locale.ROOT, "  player data          %,d%n", playerBytes);
+    }
+
+    /**
+     * Sum the bytes allocated by every live thread
+     */
+    private static long totalAllocatedBytes(com.sun.management.ThreadMXBean threads) {
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (allocated > 0) total += allocated;
+        }
+        return total;
+    }
+
+    private static void printPercentiles(long[] values, double divisor, String unit) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(sorted).average().orElse(0);
+
+        System.out.printf(Locale.ROOT, "  mean %.3f %s%n", mean / divisor, unit);
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100 * sorted.length) - 1);
+            System.out.printf(Locale.ROOT, "  p%-5s %.3f %s%n", percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile),
+                sorted[Math.max(0, index)] / divisor, unit);
+        }
+        System.out.printf(Locale.ROOT, "  max  %.3f %s%n", sorted[sorted.length - 1] / divisor, unit);
+    }
+}
@@ -0,0 +1,61 @@
+package com.lofigens.benchmarks;
+
+import com.lofigens.managers.EventManager;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A one hour time warp for a single player, settled over all of their generators.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimeWarpBenchmark {
+
+    private static final MethodHandle PROCESS_TIME_WARP = BenchmarkServer.privateMethod(
+        EventManager.class, "processTimeWarp", MethodType.methodType(void.class, Player.class, int.class));
+
+    /** Generators of the warping player, the other players own as many each */
+    @Param({"100", "1000"})
+    public int generatorsPerPlayer;
+
+    @Param({"10", "100"})
+    public int players;
+
+    private BenchmarkServer server;
+    private EventManager eventManager;
+    private Player player;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = BenchmarkServer.start(players, players * generatorsPerPlayer);
+        eventManager = server.getPlugin().getEventManager();
+        player = server.getPlayers().get(0);
+    }
+
+    /**
+     * Warped items end up in the inventory or on the ground
+     */
+    @Setup(Level.Iteration)
+    public void clearOutput() {
+        server.clearOutput();
+        server.repairAll(); // Unstable generators break over time and would stop producing
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public void processTimeWarp() throws Throwable {
+        PROCESS_TIME_WARP.invokeExact(eventManager, player, 3600);
+    }
+}
@@ -24,6 +24,12 @@ public class LofiGens extends JavaPlugin {
     private EventManager eventManager;
     private JackpotManager jackpotManager;
     private HologramManager hologramManager;
+    private DeliveryManager deliveryManager;
+    private LeaderboardManager leaderboardManager;
+    private EffectsManager effectsManager;
+    private SlotManager slotManager;
+    private MetricsManager metricsManager;
+    private LofiGensPlaceholders placeholders;
     
     // Integration flags
     private boolean plotSquaredEnabled = false;
@@ -58,7 +64,8 @@ public class LofiGens extends JavaPlugin {
         
         // Register placeholders if PlaceholderAPI is enabled
         if (placeholderAPIEnabled) {
-            new LofiGensPlaceholders(this).register();
+            placeholders = new LofiGensPlaceholders(this);
+            placeholders.register();
             logger.info("PlaceholderAPI support enabled!");
         }
         
@@ -73,14 +80,26 @@ public class LofiGens extends JavaPlugin {
         logger.info("LofiGens is shutting down...");
         
         // Save all data
+        if (generatorManager != null) {
+            generatorManager.saveGenerators();
+        }
+        
         if (playerDataManager != null) {
-            playerDataManager.saveAllData();
+            playerDataManager.shutdown();
         }
         
         if (jackpotManager != null) {
             jackpotManager.saveData();
         }
         
+        if (hologramManager != null) {
+            hologramManager.removeAllHolograms();
+        }
+        
+        if (metricsManager != null) {
+            metricsManager.shutdown();
+        }
+        
         // Cancel all tasks
         Bukkit.getScheduler().cancelTasks(this);
         
@@ -108,11 +127,19 @@ public class LofiGens extends JavaPlugin {
     }
     
     private void initializeManagers() {
+        metricsManager = new MetricsManager(this);
+        leaderboardManager = new LeaderboardManager(this);
+        effectsManager = new EffectsManager(this);
         playerDataManager = new PlayerDataManager(this);
         generatorManager = new GeneratorManager(this);
         eventManager = new EventManager(this);
         jackpotManager = new JackpotManager(this);
         hologramManager = new HologramManager(this);
+        deliveryManager = new DeliveryManager(this);
+        slotManager = new SlotManager(this);
+        
+        // Restore generators in chunks that are already loaded
+        generatorManager.loadGenerators();
         
         logger.info("All managers initialized successfully!");
     }
@@ -147,6 +174,7 @@ public class LofiGens extends JavaPlugin {
         getServer().getPluginManager().registerEvents(new PlayerListener(this), this);
         getServer().getPluginManager().registerEvents(new EventItemListener(this), this);
         getServer().getPluginManager().registerEvents(new JackpotListener(this), this);
+        getServer().getPluginManager().registerEvents(new ChunkListener(this), this);
         
         logger.info("Event listeners registered successfully!");
     }
@@ -161,6 +189,23 @@ public class LofiGens extends JavaPlugin {
         // Start event cleanup task
         eventManager.startCleanupTask();
         
+        // Start delivery summary task
+        deliveryManager.startSummaryTask();
+        
+        // Start player data save task
+        playerDataManager.startSaveTask();
+        
+        // Start leaderboard publish task
+        leaderboardManager.startPublishTask();
+        
+        // Start hologram viewer and update tasks
+        hologramManager.startViewerTask();
+        hologramManager.startUpdateTask();
+        
+        // Start metrics sampling and the optional Prometheus endpoint
+        metricsManager.startSampleTask();
+        metricsManager.startEndpoint();
+        
         logger.info("Background tasks started successfully!");
     }
     
@@ -193,6 +238,26 @@ public class LofiGens extends JavaPlugin {
         return hologramManager;
     }
     
+    public DeliveryManager getDeliveryManager() {
+        return deliveryManager;
+    }
+    
+    public LeaderboardManager getLeaderboardManager() {
+        return leaderboardManager;
+    }
+    
+    public EffectsManager getEffectsManager() {
+        return effectsManager;
+    }
+    
+    public SlotManager getSlotManager() {
+        return slotManager;
+    }
+    
+    public MetricsManager getMetricsManager() {
+        return metricsManager;
+    }
+    
     // Integration checks
     public boolean isPlotSquaredEnabled() {
         return plotSquaredEnabled && configManager.getConfig().getBoolean("enable-plotsquared-integration", true);
@@ -221,6 +286,14 @@ public class LofiGens extends JavaPlugin {
         eventManager.reload();
         jackpotManager.reload();
         hologramManager.reload();
+        deliveryManager.reload();
+        leaderboardManager.reload();
+        effectsManager.reload();
+        slotManager.reload();
+        metricsManager.reload();
+        if (placeholders != null) {
+            placeholders.reload();
+        }
         
         logger.info("LofiGens reloaded successfully!");
     }
@@ -1,6 +1,17 @@
 package com.lofigens.commands;
 
 import com.lofigens.LofiGens;
+import com.lofigens.managers.HologramManager;
+import com.lofigens.managers.MetricsManager;
+import com.lofigens.managers.PlayerDataManager;
+import com.lofigens.metrics.LatencyHistogram;
+import com.lofigens.metrics.Phase;
+import com.lofigens.models.GeneratorType;
+import com.lofigens.scheduler.ColumnarScheduler;
+import com.lofigens.scheduler.GeneratorScheduler;
+import com.lofigens.scheduler.TimingWheel;
+import com.lofigens.storage.GeneratorStore;
+import com.lofigens.utils.MessageUtil;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -16,6 +27,14 @@ public class GeneratorsCommand implements CommandExecutor {
     
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length >= 1 && args[0].equalsIgnoreCase("debug")) {
+            return handleDebug(sender, args);
+        }
+        
+        if (args.length >= 1 && args[0].equalsIgnoreCase("stats")) {
+            return handleStats(sender, args);
+        }
+        
         if (!(sender instanceof Player)) {
             sender.sendMessage("This command can only be used by players!");
             return true;
@@ -32,4 +51,175 @@ public class GeneratorsCommand implements CommandExecutor {
         
         return true;
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Handle /generators debug <section>
+     */
+    private boolean handleDebug(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("lofigens.admin")) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("no_permission"));
+            return true;
+        }
+        
+        if (args.length < 2) {
+            sender.sendMessage(MessageUtil.colorize("&cUsage: /generators debug <scheduler|storage|holograms>"));
+            return true;
+        }
+        
+        switch (args[1].toLowerCase()) {
+            case "scheduler":
+                showSchedulerDebug(sender);
+                break;
+                
+            case "storage":
+                showStorageDebug(sender);
+                break;
+                
+            case "holograms":
+                showHologramDebug(sender);
+                break;
+                
+            default:
+                sender.sendMessage(MessageUtil.colorize("&cUnknown debug section: " + args[1]));
+                break;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Handle /generators stats [reset]
+     */
+    private boolean handleStats(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("lofigens.admin")) {
+            sender.sendMessage(plugin.getConfigManager().getMessage("no_permission"));
+            return true;
+        }
+        
+        MetricsManager metrics = plugin.getMetricsManager();
+        if (args.length >= 2 && args[1].equalsIgnoreCase("reset")) {
+            metrics.reset();
+            sender.sendMessage(MessageUtil.colorize("&aMetrics have been reset."));
+            return true;
+        }
+        
+        long seconds = (System.currentTimeMillis() - metrics.getResetAt()) / 1000;
+        sender.sendMessage(MessageUtil.colorize("&6=== Phase Timings &7(last " + seconds + "s) &6==="));
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram histogram = metrics.getPhase(phase);
+            if (histogram.getCount() == 0) continue;
+            
+            sender.sendMessage(MessageUtil.colorize("&7" + phase.getDisplayName() + ": &f" + histogram.getCount()
+                + " &7runs, mean &f" + millis((long) histogram.getMeanNanos())
+                + " &7p50 &f" + millis(histogram.getPercentile(50))
+                + " &7p99 &f" + millis(histogram.getPercentile(99))
+                + " &7max &f" + millis(histogram.getMaxNanos())));
+        }
+        
+        sender.sendMessage(MessageUtil.colorize("&6=== Generations by Type ==="));
+        for (GeneratorType type : GeneratorType.values()) {
+            long generations = metrics.getGenerations(type);
+            if (generations == 0) continue;
+            
+            sender.sendMessage(MessageUtil.colorize("&7" + type.name() + ": &f" + generations
+                + " &7(compute p99 &f" + millis(metrics.getCompute(type).getPercentile(99)) + "&7)"));
+        }
+        
+        sender.sendMessage(MessageUtil.colorize("&6=== Gauges ==="));
+        sender.sendMessage(MessageUtil.colorize("&7Generators: &f" + metrics.getActiveGenerators() + " &7active, &f"
+            + metrics.getScheduledGenerators() + " &7scheduled, &f" + metrics.getParkedGenerators() + " &7parked, &f"
+            + metrics.getDeferredGenerators() + " &7deferred"));
+        sender.sendMessage(MessageUtil.colorize("&7Watched holograms: &f" + metrics.getWatchedHolograms()
+            + " &7Loaded players: &f" + metrics.getLoadedPlayers()));
+        return true;
+    }
+    
+    private static String millis(long nanos) {
+        return String.format("%.3fms", nanos / 1_000_000.0);
+    }
+    
+    /**
+     * Show scheduler state and occupancy
+     */
+    private void showSchedulerDebug(CommandSender sender) {
+        GeneratorScheduler scheduler = plugin.getGeneratorManager().getScheduler();
+        
+        sender.sendMessage(MessageUtil.colorize("&6=== Generator Scheduler ==="));
+        sender.sendMessage(MessageUtil.colorize("&7Backend: &f" + scheduler.getClass().getSimpleName()));
+        sender.sendMessage(MessageUtil.colorize("&7Current tick: &f" + scheduler.getCurrentTick()));
+        sender.sendMessage(MessageUtil.colorize("&7Scheduled generators: &f" + scheduler.getSize()
+            + " &7of &f" + plugin.getGeneratorManager().getTotalActiveGenerators() + " &7active"));
+        
+        int[] occupancy = null;
+        if (scheduler instanceof TimingWheel wheel) {
+            occupancy = wheel.getBucketOccupancy();
+        } else if (scheduler instanceof ColumnarScheduler columnar) {
+            occupancy = columnar.getBucketOccupancy();
+            sender.sendMessage(MessageUtil.colorize("&7Column rows: &f" + columnar.getColumns().getAttachedCount()
+                + "&7/&f" + columnar.getColumns().getCapacity()));
+        }
+        if (occupancy != null) {
+            int usedBuckets = 0;
+            int maxOccupancy = 0;
+            for (int count : occupancy) {
+                if (count > 0) usedBuckets++;
+                maxOccupancy = Math.max(maxOccupancy, count);
+            }
+            double averageOccupancy = usedBuckets == 0 ? 0 : (double) scheduler.getSize() / usedBuckets;
+            sender.sendMessage(MessageUtil.colorize("&7Buckets used: &f" + usedBuckets + "/" + occupancy.length
+                + " &7(max &f" + maxOccupancy + "&7, avg &f" + String.format("%.1f", averageOccupancy) + "&7)"));
+        }
+        sender.sendMessage(MessageUtil.colorize("&7Parked (owner offline): &f" + plugin.getGeneratorManager().getParkedGeneratorCount()));
+        sender.sendMessage(MessageUtil.colorize("&7Due last tick: &f" + scheduler.getLastDueCount()
+            + " &7in &f" + String.format("%.3f", plugin.getGeneratorManager().getLastTickNanos() / 1_000_000.0) + "ms"));
+        sender.sendMessage(MessageUtil.colorize("&7Applied last tick: &f" + plugin.getGeneratorManager().getLastAppliedCount()
+            + " &7(compute threads: &f" + plugin.getGeneratorManager().getEngine().getThreads() + "&7)"));
+        sender.sendMessage(MessageUtil.colorize("&7Deferred last tick: &f" + plugin.getGeneratorManager().getLastDeferredCount()
+            + " &7(max &f" + plugin.getGeneratorManager().getMaxBacklog()
+            + "&7, total &f" + plugin.getGeneratorManager().getTotalDeferred() + "&7)"));
+        
+        int[] upcoming = scheduler.getUpcoming(10);
+        StringBuilder line = new StringBuilder("&7Next ticks: &f");
+        for (int i = 0; i < upcoming.length; i++) {
+            if (i > 0) line.append(" ");
+            line.append(upcoming[i]);
+        }
+        sender.sendMessage(MessageUtil.colorize(line.toString()));
+    }
+    
+    /**
+     * Show generator region store statistics
+     */
+    private void showStorageDebug(CommandSender sender) {
+        GeneratorStore store = plugin.getGeneratorManager().getStore();
+        
+        sender.sendMessage(MessageUtil.colorize("&6=== Generator Storage ==="));
+        sender.sendMessage(MessageUtil.colorize("&7Regions loaded: &f" + store.getLoadedRegionCount()
+            + " &7(with generators: &f" + store.getTrackedRegionCount() + "&7, reading: &f" + store.getPendingRegionCount() + "&7)"));
+        sender.sendMessage(MessageUtil.colorize("&7Dirty regions: &f" + store.getDirtyRegionCount()));
+        sender.sendMessage(MessageUtil.colorize("&7Kept with unknown type: &f" + store.getUnresolvedGeneratorCount()));
+        sender.sendMessage(MessageUtil.colorize("&7Loaded from disk: &f" + store.getTotalLoadedGenerators()
+            + " &7generators in &f" + String.format("%.2f", store.getTotalLoadNanos() / 1_000_000.0) + "ms"));
+        sender.sendMessage(MessageUtil.colorize("&7Last save: &f" + store.getLastSaveGenerators() + " &7generators in &f"
+            + store.getLastSaveRegions() + " &7regions, encoded in &f"
+            + String.format("%.2f", store.getLastSaveNanos() / 1_000_000.0) + "ms"));
+        
+        PlayerDataManager playerDataManager = plugin.getPlayerDataManager();
+        sender.sendMessage(MessageUtil.colorize("&6=== Player Data ==="));
+        sender.sendMessage(MessageUtil.colorize("&7Players loaded: &f" + playerDataManager.getTotalPlayers()
+            + " &7(unsaved: &f" + playerDataManager.getDirtyPlayerCount() + "&7)"));
+        sender.sendMessage(MessageUtil.colorize("&7Last write: &f" + playerDataManager.getStore().getLastWritePlayers()
+            + " &7players in &f" + String.format("%.2f", playerDataManager.getStore().getLastWriteNanos() / 1_000_000.0) + "ms"));
+    }
+    
+    /**
+     * Show how many holograms are tracked and how many are spawned
+     */
+    private void showHologramDebug(CommandSender sender) {
+        HologramManager hologramManager = plugin.getHologramManager();
+        
+        sender.sendMessage(MessageUtil.colorize("&6=== Holograms ==="));
+        sender.sendMessage(MessageUtil.colorize("&7Holograms: &f" + hologramManager.getHologramCount()));
+        sender.sendMessage(MessageUtil.colorize("&7Spawned displays (viewed): &f" + hologramManager.getViewedHologramCount()));
+    }
+}
@@ -0,0 +1,28 @@
+package com.lofigens.listeners;
+
+import com.lofigens.LofiGens;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+
+public class ChunkListener implements Listener {
+    
+    private final LofiGens plugin;
+    
+    public ChunkListener(LofiGens plugin) {
+        this.plugin = plugin;
+    }
+    
+    @EventHandler
+    public void onChunkLoad(ChunkLoadEvent event) {
+        // Restore generators stored in this chunk's region and resume ticking
+        plugin.getGeneratorManager().handleChunkLoad(event.getChunk());
+    }
+    
+    @EventHandler
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        // Stop ticking generators whose chunk is no longer loaded
+        plugin.getGeneratorManager().handleChunkUnload(event.getChunk());
+    }
+}
@@ -1,10 +1,17 @@
 package com.lofigens.listeners;
 
 import com.lofigens.LofiGens;
+import com.lofigens.models.Generator;
+import com.lofigens.utils.MessageUtil;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.inventory.EquipmentSlot;
 
 public class GeneratorListener implements Listener {
     
@@ -27,4 +34,36 @@ public class GeneratorListener implements Listener {
         // This would check if the block being broken is a generator
         // and call GeneratorManager.removeGenerator()
     }
+    
+    @EventHandler
+    public void onPlayerInteract(PlayerInteractEvent event) {
+        if (event.getAction() != Action.RIGHT_CLICK_BLOCK || event.getHand() != EquipmentSlot.HAND) {
+            return;
+        }
+        
+        Block block = event.getClickedBlock();
+        if (block == null) return;
+        
+        Generator generator = plugin.getGeneratorManager().getGenerator(block.getLocation());
+        // Other generators only hold items produced while their owner was away
+        if (generator == null || (!generator.isCollectorMode() && generator.getTotalStoredItems() == 0)) {
+            return;
+        }
+        
+        // Empty the collector into the clicker's inventory
+        event.setCancelled(true);
+        Player player = event.getPlayer();
+        if (!player.getUniqueId().equals(generator.getOwnerUUID()) && !player.hasPermission("lofigens.admin")) {
+            MessageUtil.sendMessage(player, plugin.getConfigManager().getMessage("no_permission"));
+            return;
+        }
+        
+        long withdrawn = plugin.getGeneratorManager().withdrawCollected(player, generator);
+        if (withdrawn > 0) {
+            MessageUtil.sendMessage(player, plugin.getConfigManager().getMessage("collector_withdrawn",
+                "%amount%", MessageUtil.formatNumber(withdrawn)));
+        } else {
+            MessageUtil.sendMessage(player, plugin.getConfigManager().getMessage("collector_empty"));
+        }
+    }
 } 
\ No newline at end of file
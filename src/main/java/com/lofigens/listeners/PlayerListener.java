@@ -2,7 +2,9 @@ package com.lofigens.listeners;
 
 import com.lofigens.LofiGens;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
@@ -14,15 +16,27 @@ public class PlayerListener implements Listener {
         this.plugin = plugin;
     }
     
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        // Read player data off the main thread before the player joins
+        if (event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            plugin.getPlayerDataManager().preloadPlayerData(event.getUniqueId());
+        }
+    }
+    
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         // Initialize player data
         plugin.getPlayerDataManager().getPlayerData(event.getPlayer());
+        
+        // Pay out production from while the player was offline
+        plugin.getGeneratorManager().handleOwnerJoin(event.getPlayer());
     }
     
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
-        // Save player data
-        plugin.getPlayerDataManager().savePlayerData(event.getPlayer().getUniqueId());
+        // Save player data, it stays loaded for a while in case they come back
+        plugin.getPlayerDataManager().handlePlayerQuit(event.getPlayer().getUniqueId());
+        plugin.getEffectsManager().handlePlayerQuit(event.getPlayer().getUniqueId());
     }
 } 
\ No newline at end of file
@@ -0,0 +1,204 @@
+package com.lofigens.managers;
+
+import com.lofigens.LofiGens;
+import com.lofigens.models.Generator;
+import com.lofigens.utils.MessageUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+
+/**
+ * Collects generated items during a tick and delivers them in bulk.
+ *
+ * Output is summed per owner and material, handed to the inventory in one addItem call
+ * per owner, and whatever doesn't fit is dropped as one merged stack per generator.
+ * Chat feedback is reduced to one summary message per owner per summary window.
+ */
+public class DeliveryManager {
+
+    private final LofiGens plugin;
+    private final Map<UUID, Map<Material, PendingItems>> pending;
+    private final Map<UUID, Map<Material, Long>> summaries;
+    private BukkitTask summaryTask;
+
+    // Statistics
+    private long inventoryInserts;
+    private long droppedStacks;
+
+    public DeliveryManager(LofiGens plugin) {
+        this.plugin = plugin;
+        this.pending = new HashMap<>();
+        this.summaries = new HashMap<>();
+    }
+
+    /**
+     * Start the task that sends summary messages
+     */
+    public void startSummaryTask() {
+        if (summaryTask != null) {
+            summaryTask.cancel();
+        }
+
+        long interval = Math.max(1, plugin.getConfigManager().getConfig().getInt("delivery.summary-interval", 10)) * 20L;
+        summaryTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                sendSummaries();
+            }
+        }.runTaskTimer(plugin, interval, interval);
+    }
+
+    /**
+     * Queue items for delivery at the end of the tick
+     */
+    public void queueItems(UUID ownerUUID, Generator generator, Material material, long amount) {
+        if (amount <= 0) return;
+
+        PendingItems items = pending.computeIfAbsent(ownerUUID, k -> new EnumMap<>(Material.class))
+            .computeIfAbsent(material, k -> new PendingItems());
+        items.add(generator.getLocation(), amount);
+    }
+
+    /**
+     * Deliver everything queued this tick
+     */
+    public void flush() {
+        if (pending.isEmpty()) return;
+
+        for (Map.Entry<UUID, Map<Material, PendingItems>> entry : pending.entrySet()) {
+            deliver(entry.getKey(), entry.getValue());
+        }
+        pending.clear();
+    }
+
+    /**
+     * Deliver an owner's queued items with a single inventory insert
+     */
+    private void deliver(UUID ownerUUID, Map<Material, PendingItems> items) {
+        Player owner = Bukkit.getPlayer(ownerUUID);
+        Map<Material, Long> leftover = new EnumMap<>(Material.class);
+
+        if (owner != null && owner.isOnline()) {
+            List<ItemStack> stacks = new ArrayList<>();
+            for (Map.Entry<Material, PendingItems> entry : items.entrySet()) {
+                addStacks(stacks, entry.getKey(), entry.getValue().total);
+            }
+
+            inventoryInserts++;
+            for (ItemStack stack : owner.getInventory().addItem(stacks.toArray(new ItemStack[0])).values()) {
+                leftover.merge(stack.getType(), (long) stack.getAmount(), Long::sum);
+            }
+
+            Map<Material, Long> summary = summaries.computeIfAbsent(ownerUUID, k -> new EnumMap<>(Material.class));
+            for (Map.Entry<Material, PendingItems> entry : items.entrySet()) {
+                summary.merge(entry.getKey(), entry.getValue().total, Long::sum);
+            }
+        } else {
+            // Owner left, everything goes on the ground
+            for (Map.Entry<Material, PendingItems> entry : items.entrySet()) {
+                leftover.put(entry.getKey(), entry.getValue().total);
+            }
+        }
+
+        for (Map.Entry<Material, Long> entry : leftover.entrySet()) {
+            dropOverflow(entry.getKey(), entry.getValue(), items.get(entry.getKey()));
+        }
+    }
+
+    /**
+     * Drop overflow at the generators it came from, one merged stack per generator
+     */
+    private void dropOverflow(Material material, long amount, PendingItems items) {
+        if (items == null) return;
+
+        // Attribute the overflow to the generators that produced last
+        for (int i = items.locations.size() - 1; i >= 0 && amount > 0; i--) {
+            long dropAmount = Math.min(amount, items.amounts.get(i));
+            Location location = items.locations.get(i);
+            World world = location.getWorld();
+            if (world == null) continue;
+
+            List<ItemStack> stacks = new ArrayList<>();
+            addStacks(stacks, material, dropAmount);
+            Location dropLocation = location.clone().add(0.5, 1, 0.5);
+            for (ItemStack stack : stacks) {
+                world.dropItem(dropLocation, stack);
+            }
+            droppedStacks += stacks.size();
+            amount -= dropAmount;
+        }
+    }
+
+    /**
+     * Send and reset the summary messages of every owner
+     */
+    private void sendSummaries() {
+        if (summaries.isEmpty()) return;
+
+        for (Map.Entry<UUID, Map<Material, Long>> entry : summaries.entrySet()) {
+            Player owner = Bukkit.getPlayer(entry.getKey());
+            if (owner == null || !owner.isOnline()) continue;
+
+            StringBuilder items = new StringBuilder();
+            for (Map.Entry<Material, Long> item : entry.getValue().entrySet()) {
+                if (items.length() > 0) items.append(", ");
+                items.append(MessageUtil.formatNumber(item.getValue())).append("x ")
+                    .append(item.getKey().name().toLowerCase().replace("_", " "));
+            }
+
+            MessageUtil.sendMessage(owner, plugin.getConfigManager().getMessage("items_generated_summary",
+                "%items%", items.toString()));
+        }
+        summaries.clear();
+    }
+
+    /**
+     * Split an amount of items into full stacks
+     */
+    private static void addStacks(List<ItemStack> stacks, Material material, long amount) {
+        int maxStackSize = Math.max(1, material.getMaxStackSize());
+        while (amount > 0) {
+            int stackSize = (int) Math.min(amount, maxStackSize);
+            stacks.add(new ItemStack(material, stackSize));
+            amount -= stackSize;
+        }
+    }
+
+    /**
+     * Reload the delivery manager
+     */
+    public void reload() {
+        startSummaryTask();
+    }
+
+    // Statistics
+    public long getInventoryInserts() { return inventoryInserts; }
+    public long getDroppedStacks() { return droppedStacks; }
+
+    /**
+     * Items of one material queued for an owner, with the generators they came from
+     */
+    private static class PendingItems {
+        private final List<Location> locations = new ArrayList<>();
+        private final List<Long> amounts = new ArrayList<>();
+        private long total;
+
+        private void add(Location location, long amount) {
+            int last = locations.size() - 1;
+            if (last >= 0 && locations.get(last) == location) {
+                amounts.set(last, amounts.get(last) + amount);
+            } else {
+                locations.add(location);
+                amounts.add(amount);
+            }
+            total += amount;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.lofigens.managers;
+
+import com.lofigens.LofiGens;
+import com.lofigens.utils.BlockKeys;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.Sound;
+import org.bukkit.World;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+
+import java.util.*;
+
+/**
+ * Sounds and particles of generators and the jackpot.
+ *
+ * Effect settings are resolved into Sound and Particle values when the config loads, so
+ * playing an effect never parses names. Generation effects are collected per chunk during
+ * a tick and sent once per chunk at the end of it, only to players in range, and every
+ * player receives at most a configured number of sounds and particle bursts per second.
+ * A flush looks up the players of each world once and checks every chunk against their positions.
+ */
+public class EffectsManager {
+
+    /** Generation particles are shown at up to this many generators per chunk and tick */
+    private static final int MAX_SOURCES_PER_CHUNK = 4;
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final LofiGens plugin;
+    private final Map<UUID, Map<Long, ChunkEffects>> pending;
+    private final Map<UUID, int[]> playerBudgets;   // Sounds and particle bursts sent this second
+    private long windowStart;
+
+    // Players of the world being flushed, reused between flushes
+    private Player[] viewers = new Player[16];
+    private double[] viewerPositions = new double[16 * 3];   // x, y, z per viewer
+    private int viewerCount;
+
+    // Resolved settings
+    private SoundEffect generateSound;
+    private SoundEffect placeSound;
+    private ParticleEffect generateParticle;
+    private SoundEffect jackpotSound;
+    private ParticleEffect jackpotParticle;
+    private double rangeSquared;
+    private int maxSoundsPerSecond;
+    private int maxParticlesPerSecond;
+
+    // Statistics
+    private long sentSounds;
+    private long sentParticles;
+    private long droppedEffects;
+
+    public EffectsManager(LofiGens plugin) {
+        this.plugin = plugin;
+        this.pending = new HashMap<>();
+        this.playerBudgets = new HashMap<>();
+        reload();
+    }
+
+    /**
+     * Resolve every effect setting
+     */
+    public void reload() {
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        boolean sounds = config.getBoolean("sounds.enabled", true);
+        boolean particles = config.getBoolean("particles.enabled", true);
+
+        generateSound = sounds ? resolveSound(config.getString("sounds.item_generate", "ENTITY_EXPERIENCE_ORB_PICKUP"), 0.5f) : null;
+        placeSound = sounds ? resolveSound(config.getString("sounds.generator_place", "BLOCK_STONE_PLACE"), 0.7f) : null;
+        generateParticle = particles ? resolveParticle(config.getString("particles.generator_working", "HEART"), 3, 0.2) : null;
+
+        jackpotSound = config.getBoolean("jackpot.sounds.enabled", true)
+            ? resolveSound(config.getString("jackpot.sounds.sound_on_win", "ENTITY_PLAYER_LEVELUP"), 1.0f) : null;
+        jackpotParticle = config.getBoolean("jackpot.particles.enabled", true)
+            ? resolveParticle(config.getString("jackpot.particles.particle_on_win", "HEART"), config.getInt("jackpot.particles.amount", 10), 1) : null;
+
+        double range = Math.max(1, config.getDouble("effects.range", 24));
+        rangeSquared = range * range;
+        maxSoundsPerSecond = Math.max(0, config.getInt("effects.max-sounds-per-second", 4));
+        maxParticlesPerSecond = Math.max(0, config.getInt("effects.max-particles-per-second", 20));
+    }
+
+    private SoundEffect resolveSound(String name, float volume) {
+        try {
+            return new SoundEffect(Sound.valueOf(name), volume, 1.0f);
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Invalid sound in config: " + name);
+            return null;
+        }
+    }
+
+    private ParticleEffect resolveParticle(String name, int count, double spread) {
+        try {
+            return new ParticleEffect(Particle.valueOf(name), count, spread);
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Invalid particle in config: " + name);
+            return null;
+        }
+    }
+
+    /**
+     * Queue the effects of a generation at a generator block, sent with the rest of its chunk at the end of the tick
+     */
+    public void playGeneration(Location location) {
+        if (generateSound == null && generateParticle == null) return;
+        World world = location.getWorld();
+        if (world == null) return;
+
+        ChunkEffects effects = pending.computeIfAbsent(world.getUID(), k -> new HashMap<>())
+            .computeIfAbsent(BlockKeys.chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4), k -> new ChunkEffects(world));
+        effects.add(location.clone().add(0.5, 1, 0.5));
+    }
+
+    /**
+     * Play the placement sound at a new generator
+     */
+    public void playPlacement(Location location) {
+        World world = location.getWorld();
+        if (placeSound == null || world == null) return;
+        world.playSound(location, placeSound.sound(), placeSound.volume(), placeSound.pitch());
+    }
+
+    /**
+     * Play the jackpot win effects at the winner
+     */
+    public void playJackpotWin(Player winner) {
+        if (jackpotSound != null) {
+            winner.playSound(winner.getLocation(), jackpotSound.sound(), jackpotSound.volume(), jackpotSound.pitch());
+        }
+        if (jackpotParticle != null) {
+            winner.getWorld().spawnParticle(jackpotParticle.particle(), winner.getLocation().add(0, 1, 0),
+                jackpotParticle.count(), jackpotParticle.spread(), jackpotParticle.spread(), jackpotParticle.spread(), 0);
+        }
+    }
+
+    /**
+     * Send the generation effects collected this tick
+     */
+    public void flush() {
+        long now = System.nanoTime();
+        if (now - windowStart >= WINDOW_NANOS) {
+            windowStart = now;
+            playerBudgets.clear();
+        }
+        if (pending.isEmpty()) return;
+
+        for (Map<Long, ChunkEffects> worldChunks : pending.values()) {
+            // Look up the world's players and their positions once for all of its chunks
+            collectViewers(worldChunks.values().iterator().next().world);
+            if (viewerCount == 0) continue;
+
+            for (ChunkEffects effects : worldChunks.values()) {
+                send(effects);
+            }
+        }
+        pending.clear();
+        Arrays.fill(viewers, 0, viewerCount, null);
+        viewerCount = 0;
+    }
+
+    /**
+     * Fill the viewer arrays with the players of a world
+     */
+    private void collectViewers(World world) {
+        List<Player> players = world.getPlayers();
+        viewerCount = players.size();
+        if (viewers.length < viewerCount) {
+            int capacity = Math.max(viewerCount, viewers.length * 2);
+            viewers = new Player[capacity];
+            viewerPositions = new double[capacity * 3];
+        }
+
+        for (int i = 0; i < viewerCount; i++) {
+            Player player = players.get(i);
+            Location location = player.getLocation();
+            viewers[i] = player;
+            viewerPositions[i * 3] = location.getX();
+            viewerPositions[i * 3 + 1] = location.getY();
+            viewerPositions[i * 3 + 2] = location.getZ();
+        }
+    }
+
+    /**
+     * Send one chunk's effects: a single sound and a particle burst at a few of its generators
+     */
+    private void send(ChunkEffects effects) {
+        Location center = effects.sources[0];
+        double centerX = center.getX();
+        double centerY = center.getY();
+        double centerZ = center.getZ();
+
+        for (int v = 0; v < viewerCount; v++) {
+            double dx = viewerPositions[v * 3] - centerX;
+            double dy = viewerPositions[v * 3 + 1] - centerY;
+            double dz = viewerPositions[v * 3 + 2] - centerZ;
+            if (dx * dx + dy * dy + dz * dz > rangeSquared) continue;
+
+            Player player = viewers[v];
+            int[] budget = playerBudgets.computeIfAbsent(player.getUniqueId(), k -> new int[2]);
+
+            if (generateSound != null) {
+                if (budget[0] < maxSoundsPerSecond) {
+                    player.playSound(center, generateSound.sound(), generateSound.volume(), generateSound.pitch());
+                    budget[0]++;
+                    sentSounds++;
+                } else {
+                    droppedEffects++;
+                }
+            }
+
+            if (generateParticle != null) {
+                for (int i = 0; i < effects.sourceCount; i++) {
+                    if (budget[1] >= maxParticlesPerSecond) {
+                        droppedEffects += effects.sourceCount - i;
+                        break;
+                    }
+                    player.spawnParticle(generateParticle.particle(), effects.sources[i], generateParticle.count(),
+                        generateParticle.spread(), generateParticle.spread(), generateParticle.spread(), 0);
+                    budget[1]++;
+                    sentParticles++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Forget a player's budget when they leave
+     */
+    public void handlePlayerQuit(UUID playerUUID) {
+        playerBudgets.remove(playerUUID);
+    }
+
+    // Statistics
+    public long getSentSounds() { return sentSounds; }
+    public long getSentParticles() { return sentParticles; }
+    public long getDroppedEffects() { return droppedEffects; }
+
+    /**
+     * Generation effects of one chunk during a tick
+     */
+    private static class ChunkEffects {
+        private final World world;
+        private final Location[] sources = new Location[MAX_SOURCES_PER_CHUNK];
+        private int sourceCount;
+
+        ChunkEffects(World world) {
+            this.world = world;
+        }
+
+        void add(Location source) {
+            if (sourceCount < sources.length) {
+                sources[sourceCount++] = source;
+            }
+        }
+    }
+
+    private record SoundEffect(Sound sound, float volume, float pitch) {
+    }
+
+    private record ParticleEffect(Particle particle, int count, double spread) {
+    }
+}
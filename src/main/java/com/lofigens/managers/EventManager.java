@@ -1,9 +1,14 @@
 package com.lofigens.managers;
 
 import com.lofigens.LofiGens;
+import com.lofigens.metrics.Phase;
+import com.lofigens.models.GeneratorType;
 import com.lofigens.models.PlayerData;
+import com.lofigens.production.ProductionResult;
+import com.lofigens.production.RewardBundle;
 import com.lofigens.utils.MessageUtil;
 import org.bukkit.Bukkit;
+import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
@@ -35,7 +40,9 @@ public class EventManager {
         cleanupTask = new BukkitRunnable() {
             @Override
             public void run() {
+                long start = System.nanoTime();
                 cleanupExpiredEvents();
+                plugin.getMetricsManager().record(Phase.EVENT_CLEANUP, System.nanoTime() - start);
             }
         }.runTaskTimer(plugin, 20L, 20L); // Run every second
     }
@@ -163,90 +170,50 @@ public class EventManager {
      */
     private void processTimeWarp(Player player, int warpSeconds) {
         PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(player);
+        GeneratorManager generatorManager = plugin.getGeneratorManager();
         
         // Get all player's generators
-        var generators = plugin.getGeneratorManager().getPlayerGenerators(player.getUniqueId());
+        var generators = generatorManager.getPlayerGenerators(player.getUniqueId());
         
         if (generators.isEmpty()) {
             MessageUtil.sendMessage(player, "&cYou don't have any generators to warp!");
             return;
         }
         
-        int totalItemsGenerated = 0;
-        
-        // Process each generator
+        // Compute every generator in constant time and merge the EXP and jackpot rewards
+        RewardBundle rewards = new RewardBundle();
         for (var generator : generators) {
-            if (!generator.isWorking()) continue;
+            if (!generator.isWorking() || generator.getType() == GeneratorType.COMMAND) continue;
             
-            int generationsInTime = warpSeconds / generator.getSpawnInterval();
+            long generationsInTime = warpSeconds / generator.getSpawnInterval();
             if (generationsInTime <= 0) continue;
             
-            switch (generator.getType()) {
-                case ITEM:
-                case UNSTABLE:
-                    if (generator.getItemType() != null) {
-                        int totalAmount = generationsInTime;
-                        
-                        // Add items to inventory
-                        while (totalAmount > 0) {
-                            int stackSize = Math.min(totalAmount, generator.getItemType().getMaxStackSize());
-                            var item = new org.bukkit.inventory.ItemStack(generator.getItemType(), stackSize);
-                            
-                            var leftover = player.getInventory().addItem(item);
-                            if (!leftover.isEmpty()) {
-                                // Drop excess items
-                                for (var drop : leftover.values()) {
-                                    player.getWorld().dropItem(player.getLocation(), drop);
-                                }
-                            }
-                            
-                            totalAmount -= stackSize;
-                        }
-                        
-                        totalItemsGenerated += generationsInTime;
-                        playerData.addItemsGenerated(generationsInTime);
-                    }
-                    break;
-                    
-                case EXP:
-                    int totalExp = generationsInTime * generator.getExpAmount();
-                    player.giveExp(totalExp);
-                    playerData.addExpGenerated(totalExp);
-                    break;
-                    
-                case OVERCLOCKED:
-                    // Process overclocked generation
-                    for (int i = 0; i < generationsInTime && generator.isWorking(); i++) {
-                        var itemType = generator.getNextOverclockedItem();
-                        if (itemType != null) {
-                            var item = new org.bukkit.inventory.ItemStack(itemType, 1);
-                            var leftover = player.getInventory().addItem(item);
-                            if (!leftover.isEmpty()) {
-                                player.getWorld().dropItem(player.getLocation(), leftover.values().iterator().next());
-                            }
-                            
-                            generator.markGenerated(); // This handles the counter
-                            totalItemsGenerated++;
-                            playerData.addItemsGenerated(1);
-                        }
-                    }
-                    break;
-                    
-                case JACKPOT:
-                    // Add to jackpot multiple times
-                    for (int i = 0; i < generationsInTime; i++) {
-                        int min = generator.getMinJackpotAmount();
-                        int max = generator.getMaxJackpotAmount();
-                        int amount = min + (int) (Math.random() * (max - min + 1));
-                        
-                        plugin.getJackpotManager().addToJackpot(amount);
-                        playerData.addJackpotContribution();
-                    }
-                    break;
+            ProductionResult result = generatorManager.getProductionCalculator().calculate(generator, generationsInTime, 1);
+            generatorManager.applyBatchState(generator, result);
+            rewards.add(result);
+            
+            // Items take the same way as regular output, into the collector or the tick's delivery
+            for (Map.Entry<Material, Long> entry : result.getItems().entrySet()) {
+                generatorManager.outputItems(generator, player, entry.getKey(), entry.getValue());
             }
         }
         
-        MessageUtil.sendMessage(player, "&aTime warp complete! Generated " + totalItemsGenerated + " items from " + warpSeconds + " seconds of time!");
+        if (rewards.getTotalItems() > 0) {
+            playerData.addItemsGenerated((int) Math.min(Integer.MAX_VALUE, rewards.getTotalItems()));
+        }
+        
+        if (rewards.getExp() > 0) {
+            int totalExp = (int) Math.min(Integer.MAX_VALUE, rewards.getExp());
+            player.giveExp(totalExp);
+            playerData.addExpGenerated(totalExp);
+        }
+        
+        if (rewards.getJackpotContributions() > 0) {
+            plugin.getJackpotManager().addToJackpot(rewards.getJackpotAmount());
+            playerData.addJackpotContributions(rewards.getJackpotContributions());
+        }
+        
+        MessageUtil.sendMessage(player, "&aTime warp complete! Generated " + rewards.getTotalItems() + " items from " + warpSeconds + " seconds of time!");
     }
     
     /**
@@ -1,10 +1,26 @@
 package com.lofigens.managers;
 
 import com.lofigens.LofiGens;
+import com.lofigens.metrics.Phase;
 import com.lofigens.models.Generator;
+import com.lofigens.models.GeneratorDefinition;
 import com.lofigens.models.GeneratorType;
 import com.lofigens.models.PlayerData;
+import com.lofigens.production.GenerationEffect;
+import com.lofigens.production.GenerationEngine;
+import com.lofigens.production.GenerationJob;
+import com.lofigens.production.GenerationOutcome;
+import com.lofigens.production.ProductionCalculator;
+import com.lofigens.production.ProductionResult;
+import com.lofigens.scheduler.ColumnarScheduler;
+import com.lofigens.scheduler.GeneratorScheduler;
+import com.lofigens.scheduler.TimingWheel;
+import com.lofigens.storage.GeneratorStore;
+import com.lofigens.storage.GeneratorStore.StoredGenerator;
+import com.lofigens.utils.BlockKeyMap;
+import com.lofigens.utils.BlockKeys;
 import com.lofigens.utils.MessageUtil;
+import com.lofigens.utils.OwnerIndex;
 import org.bukkit.*;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.ExperienceOrb;
@@ -15,271 +31,757 @@ import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class GeneratorManager {
     
+    private static final int TICKS_PER_SECOND = 20;
+    
     private final LofiGens plugin;
-    private final Map<Location, Generator> activeGenerators;
-    private final Map<String, ConfigurationSection> generatorConfigs;
+    private final BlockKeyMap<Generator> activeGenerators;
+    private final Map<UUID, Map<Long, List<Generator>>> chunkGenerators;
+    private final OwnerIndex ownerGenerators;
+    private volatile Map<String, GeneratorDefinition> definitions;
+    private final GeneratorScheduler scheduler;
+    private final ProductionCalculator productionCalculator;
+    private final GenerationEngine engine;
+    private final GeneratorStore store;
+    private final Map<UUID, List<Generator>> parkedGenerators;
+    private final ArrayDeque<Generator> backlog;
     private BukkitTask generatorTask;
+    private long tickBudgetNanos;
+    
+    // Tick metrics
+    private long lastTickNanos;
+    private int lastDeferredCount;
+    private int lastAppliedCount;
+    private long totalDeferred;
+    private int maxBacklog;
     
     public GeneratorManager(LofiGens plugin) {
         this.plugin = plugin;
-        this.activeGenerators = new ConcurrentHashMap<>();
-        this.generatorConfigs = new HashMap<>();
+        this.activeGenerators = new BlockKeyMap<>(1024);
+        this.chunkGenerators = new HashMap<>();
+        this.ownerGenerators = new OwnerIndex();
+        this.definitions = Collections.emptyMap();
+        this.productionCalculator = new ProductionCalculator(new Random());
+        this.engine = new GenerationEngine(plugin, getComputeThreads());
+        this.scheduler = createScheduler();
+        this.store = new GeneratorStore(plugin);
+        this.parkedGenerators = new HashMap<>();
+        this.backlog = new ArrayDeque<>();
         loadGeneratorConfigs();
     }
     
     /**
-     * Load generator configurations from config.yml
+     * Create the scheduler backend selected by scheduler.backend
+     */
+    private GeneratorScheduler createScheduler() {
+        String backend = plugin.getConfigManager().getConfig().getString("scheduler.backend", "wheel");
+        int wheelSize = plugin.getConfigManager().getConfig().getInt("scheduler.wheel-size", 2048);
+        if ("columnar".equalsIgnoreCase(backend)) {
+            return new ColumnarScheduler(wheelSize);
+        }
+        if (!"wheel".equalsIgnoreCase(backend)) {
+            plugin.getLogger().warning("Unknown scheduler backend " + backend + ", using the timing wheel");
+        }
+        return new TimingWheel(wheelSize);
+    }
+    
+    /**
+     * Parse the generator definitions from config.yml and swap them in as a whole
      */
     private void loadGeneratorConfigs() {
-        generatorConfigs.clear();
+        Map<String, GeneratorDefinition> loaded = new LinkedHashMap<>();
+        boolean defaultCollector = plugin.getConfigManager().getConfig().getBoolean("collector.enabled", false);
         
         ConfigurationSection section = plugin.getConfigManager().getGeneratorsSection();
         if (section != null) {
             for (String generatorId : section.getKeys(false)) {
                 ConfigurationSection generatorSection = section.getConfigurationSection(generatorId);
-                if (generatorSection != null) {
-                    generatorConfigs.put(generatorId, generatorSection);
+                if (generatorSection == null) continue;
+                try {
+                    loaded.put(generatorId, new GeneratorDefinition(generatorId, generatorSection, defaultCollector));
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Invalid generator type for " + generatorId + ": " + generatorSection.getString("type"));
                 }
             }
         }
         
-        plugin.getLogger().info("Loaded " + generatorConfigs.size() + " generator configurations");
+        definitions = Collections.unmodifiableMap(loaded);
+        plugin.getLogger().info("Loaded " + loaded.size() + " generator configurations");
     }
     
     /**
-     * Start the generator task that handles all generation
+     * Point placed generators at the reloaded definitions.
+     * Generators whose type was removed from the config keep their old definition.
      */
-    public void startGeneratorTasks() {
-        if (generatorTask != null) {
-            generatorTask.cancel();
+    private void rebindDefinitions() {
+        Map<String, GeneratorDefinition> current = definitions;
+        activeGenerators.forEach(generator -> {
+            GeneratorDefinition definition = current.get(generator.getId());
+            if (definition != null && definition != generator.getDefinition()) {
+                GeneratorType oldType = generator.getType();
+                generator.setDefinition(definition);
+                ownerGenerators.retype(generator, oldType);
+            }
+        });
+    }
+    
+    /**
+     * Restore the kept generators whose type is configured again
+     */
+    private void restoreResolved() {
+        for (World world : Bukkit.getWorlds()) {
+            List<StoredGenerator> resolved = store.takeResolved(world, definitions::containsKey);
+            if (resolved.isEmpty()) continue;
+            
+            List<Generator> restored = new ArrayList<>(resolved.size());
+            for (StoredGenerator stored : resolved) {
+                Generator generator = restoreGenerator(world, stored);
+                if (generator != null) {
+                    restored.add(generator);
+                }
+            }
+            createRestoredHolograms(restored);
+            plugin.getLogger().info("Restored " + restored.size() + " placed generators in " + world.getName()
+                + " whose type is configured again");
+        }
+    }
+    
+    /**
+     * Load the generators of every chunk that is already loaded
+     * 
+     * Regions are read on the calling thread here, so every generator is in place once the
+     * plugin has started.
+     */
+    public void loadGenerators() {
+        for (World world : Bukkit.getWorlds()) {
+            for (Chunk chunk : world.getLoadedChunks()) {
+                List<StoredGenerator> storedGenerators = store.loadRegion(world, chunk.getX() >> 5, chunk.getZ() >> 5);
+                if (storedGenerators != null) {
+                    restoreRegion(world, storedGenerators);
+                }
+                resumeChunk(world, chunk.getX(), chunk.getZ());
+            }
         }
         
-        generatorTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                processAllGenerators();
+        plugin.getLogger().info("Loaded " + activeGenerators.size() + " placed generators");
+    }
+    
+    /**
+     * Restore the chunk's region if needed and resume ticking the chunk's generators
+     * 
+     * The first chunk of a region to load starts reading the region file on the storage thread.
+     * Its generators are restored on the main thread once the file is read, and scheduled if
+     * their chunk is still loaded by then.
+     */
+    public void handleChunkLoad(Chunk chunk) {
+        World world = chunk.getWorld();
+        int regionX = chunk.getX() >> 5;
+        int regionZ = chunk.getZ() >> 5;
+        
+        store.loadRegionAsync(world, regionX, regionZ,
+            storedGenerators -> restoreRegion(world, storedGenerators));
+        resumeChunk(world, chunk.getX(), chunk.getZ());
+    }
+    
+    /**
+     * Restore the generators read from a region file
+     */
+    private void restoreRegion(World world, List<StoredGenerator> storedGenerators) {
+        List<Generator> restored = new ArrayList<>(storedGenerators.size());
+        for (StoredGenerator stored : storedGenerators) {
+            Generator generator = restoreGenerator(world, stored);
+            if (generator != null) {
+                restored.add(generator);
+            } else {
+                // Keep generators of unknown types as they are, the type may only be missing from the config for now
+                plugin.getLogger().warning("Keeping placed generator with unknown type " + stored.generatorId()
+                    + " in " + world.getName() + " until the type is configured again");
+                store.retainUnresolved(world, stored);
+            }
+        }
+        createRestoredHolograms(restored);
+    }
+    
+    /**
+     * Put the generators of a loaded chunk back on the scheduler
+     */
+    private void resumeChunk(World world, int chunkX, int chunkZ) {
+        for (Generator generator : getChunkGenerators(world, chunkX, chunkZ)) {
+            if (generator.getNextFireTick() < 0 && generator.isWorking() && !generator.isParked()) {
+                resumeGenerator(generator);
             }
-        }.runTaskTimer(plugin, 20L, 20L); // Run every second
+        }
+    }
+    
+    /**
+     * Suspend the generators of a chunk that is unloading
+     */
+    public void handleChunkUnload(Chunk chunk) {
+        long now = System.currentTimeMillis();
         
-        plugin.getLogger().info("Generator task started");
+        for (Generator generator : getChunkGenerators(chunk.getWorld(), chunk.getX(), chunk.getZ())) {
+            scheduler.unschedule(generator);
+            generator.setSuspendedSince(now);
+        }
     }
     
     /**
-     * Process all active generators
+     * Put a generator back on the scheduler, catching up on generations missed while suspended
      */
-    private void processAllGenerators() {
-        List<Location> toRemove = new ArrayList<>();
+    private void resumeGenerator(Generator generator) {
+        long now = System.currentTimeMillis();
+        long intervalMillis = generator.getSpawnInterval() * 1000L;
         
-        for (Map.Entry<Location, Generator> entry : activeGenerators.entrySet()) {
-            Location location = entry.getKey();
-            Generator generator = entry.getValue();
-            
-            // Check if the block still exists
-            if (location.getBlock().getType() == Material.AIR) {
-                toRemove.add(location);
-                continue;
+        if (generator.getSuspendedSince() > 0 && intervalMillis > 0) {
+            // Like offline production, only the capped window is caught up and the rest is forfeited
+            long earliest = now - getMaxOfflineMillis();
+            if (generator.getLastGeneration() < earliest) {
+                generator.setLastGeneration(earliest);
             }
             
-            // Check if generator is ready to generate
-            if (generator.isReadyToGenerate()) {
-                processGeneration(generator);
+            long missed = (now - generator.getLastGeneration()) / intervalMillis;
+            if (missed > 0) {
+                catchUpGenerator(generator, missed);
             }
         }
+        generator.setSuspendedSince(0);
         
-        // Remove generators that no longer exist
-        for (Location location : toRemove) {
-            removeGenerator(location);
+        if (generator.isWorking()) {
+            long elapsedSeconds = (now - generator.getLastGeneration()) / 1000;
+            scheduleInSeconds(generator, Math.max(1, generator.getSpawnInterval() - elapsedSeconds));
         }
     }
     
     /**
-     * Process generation for a specific generator
+     * Apply the generations a suspended generator missed in a single pass
+     * 
+     * Command generators are not caught up, replaying every missed run would dispatch
+     * thousands of console commands in a single tick.
      */
-    private void processGeneration(Generator generator) {
+    private void catchUpGenerator(Generator generator, long missed) {
+        if (generator.getType() == GeneratorType.COMMAND) return;
+        
         Player owner = Bukkit.getPlayer(generator.getOwnerUUID());
         if (owner == null || !owner.isOnline()) {
-            return; // Owner is offline
+            return; // Owner is offline, the generator fires as soon as they are back
         }
         
-        PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(owner);
-        Location location = generator.getLocation();
+        int multiplier = plugin.getEventManager().isDoubleItemsActive() ? 2 : 1;
+        applyProduction(generator, owner, missed, multiplier);
+    }
+    
+    /**
+     * Apply a number of generations to a generator in a single pass
+     * 
+     * @return the production that was applied
+     */
+    private ProductionResult applyProduction(Generator generator, Player owner, long generations, int multiplier) {
+        long intervalMillis = generator.getSpawnInterval() * 1000L;
+        ProductionResult result = productionCalculator.calculate(generator, generations, multiplier);
+        if (result.isEmpty()) return result;
         
-        // Check for double items event
-        boolean doubleItems = plugin.getEventManager().isDoubleItemsActive();
-        int multiplier = doubleItems ? 2 : 1;
+        // Advance the generator as if it had run
+        generator.setLastGeneration(generator.getLastGeneration() + result.getGenerations() * intervalMillis);
+        generator.setCurrentGenerations(result.getFinalGenerationCount());
+        applyEffects(generator, owner, GenerationEffect.of(result), false);
+        store.markDirty(generator);
+        return result;
+    }
+    
+    /**
+     * Apply the effects of one or more generations (main thread)
+     * 
+     * Catch-up items, from offline time or an unloaded chunk, are kept in the generator's
+     * collector storage up to its capacity instead of being delivered, so a join never floods
+     * the inventory or drops stacks in the world. The owner empties it by right-clicking.
+     * 
+     * @param live whether this is a regular generation, which delivers items and sends the
+     *             per-generation messages (jackpot contribution, overclocked finish)
+     */
+    private void applyEffects(Generator generator, Player owner, List<GenerationEffect> effects, boolean live) {
+        if (effects.isEmpty()) return;
+        PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(owner);
         
-        switch (generator.getType()) {
-            case ITEM:
-            case UNSTABLE:
-                generateItem(generator, owner, playerData, multiplier);
-                break;
-                
-            case COMMAND:
-                executeCommand(generator, owner);
-                break;
-                
-            case EXP:
-                generateExp(generator, owner, playerData, multiplier);
-                break;
-                
-            case OVERCLOCKED:
-                generateOverclockedItem(generator, owner, playerData, multiplier);
-                break;
-                
-            case JACKPOT:
-                contributeToJackpot(generator, owner, playerData);
-                break;
+        long totalItems = 0;
+        for (GenerationEffect effect : effects) {
+            if (effect instanceof GenerationEffect.DeliverItems items) {
+                if (live) {
+                    // Items are merged with the rest of this tick's output
+                    outputItems(generator, owner, items.material(), items.amount());
+                } else {
+                    generator.storeItems(items.material(), items.amount(), getCollectorCapacity());
+                }
+                totalItems += items.amount();
+            } else if (effect instanceof GenerationEffect.SpawnOrb orb) {
+                Location orbLocation = generator.getLocation().clone().add(0.5, 1, 0.5);
+                owner.getWorld().spawn(orbLocation, ExperienceOrb.class).setExperience(orb.experience());
+                playerData.addExpGenerated(orb.experience());
+            } else if (effect instanceof GenerationEffect.DispatchCommand command) {
+                for (int i = 0; i < command.runs(); i++) {
+                    executeCommand(generator, owner);
+                }
+            } else if (effect instanceof GenerationEffect.ContributeJackpot jackpot) {
+                plugin.getJackpotManager().addToJackpot(jackpot.amount());
+                playerData.addJackpotContributions(jackpot.contributions());
+                if (live) {
+                    MessageUtil.sendMessage(owner, plugin.getConfigManager().getMessage("jackpot_contributed",
+                        "%amount%", String.valueOf(jackpot.amount())));
+                }
+            } else if (effect instanceof GenerationEffect.BreakGenerator) {
+                generator.setWorking(false);
+                if (live && generator.getType() == GeneratorType.OVERCLOCKED) {
+                    announceOverclockedFinish(owner);
+                }
+            }
         }
         
-        // Mark generator as generated
-        generator.markGenerated();
-        
-        // Play generation effects
-        playGenerationEffects(location, generator);
-        
-        // Update hologram if enabled
-        if (plugin.getConfigManager().isHologramsEnabled() && playerData.isHologramsEnabled()) {
-            plugin.getHologramManager().updateHologram(generator);
+        if (totalItems > 0) {
+            playerData.addItemsGenerated((int) Math.min(Integer.MAX_VALUE, totalItems));
         }
     }
     
     /**
-     * Generate an item from a generator
+     * Take a generator off the scheduler until its owner joins again
+     */
+    private void parkGenerator(Generator generator) {
+        if (generator.isParked()) return;
+        
+        scheduler.unschedule(generator);
+        generator.setParked(true);
+        parkedGenerators.computeIfAbsent(generator.getOwnerUUID(), k -> new ArrayList<>()).add(generator);
+    }
+    
+    /**
+     * Settle the production of an owner's parked generators and put them back on the scheduler
      */
-    private void generateItem(Generator generator, Player owner, PlayerData playerData, int multiplier) {
-        Material itemType = generator.getItemType();
-        if (itemType == null) return;
+    public void handleOwnerJoin(Player owner) {
+        List<Generator> generators = parkedGenerators.remove(owner.getUniqueId());
+        if (generators == null) return;
         
-        ItemStack item = new ItemStack(itemType, multiplier);
+        boolean accrue = plugin.getConfigManager().getConfig().getBoolean("offline-production.enabled", true);
+        long maxOfflineMillis = getMaxOfflineMillis();
+        long now = System.currentTimeMillis();
+        long totalItems = 0;
         
-        // Try to add to inventory, drop if full
-        HashMap<Integer, ItemStack> leftover = owner.getInventory().addItem(item);
-        if (!leftover.isEmpty()) {
-            for (ItemStack drop : leftover.values()) {
-                owner.getWorld().dropItem(generator.getLocation().add(0, 1, 0), drop);
+        for (Generator generator : generators) {
+            generator.setParked(false);
+            if (activeGenerators.get(generator.getLocation()) != generator) continue;
+            
+            long intervalMillis = generator.getSpawnInterval() * 1000L;
+            
+            // Only the capped offline window counts, the rest of the time is forfeited
+            long earliest = accrue ? now - maxOfflineMillis : now - intervalMillis;
+            if (generator.getLastGeneration() < earliest) {
+                generator.setLastGeneration(earliest);
+            }
+            
+            // Generators in unloaded chunks catch up when their chunk loads. A parked generator
+            // whose chunk reloaded while the owner was away is still marked suspended, so the
+            // chunk itself is checked.
+            Location location = generator.getLocation();
+            if (!location.getWorld().isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4)) {
+                if (generator.getSuspendedSince() == 0) {
+                    generator.setSuspendedSince(now);
+                }
+                continue;
+            }
+            generator.setSuspendedSince(0);
+            
+            // Command generators don't accrue, like with time warps
+            if (accrue && intervalMillis > 0 && generator.isWorking() && generator.getType() != GeneratorType.COMMAND) {
+                long generations = (now - generator.getLastGeneration()) / intervalMillis;
+                if (generations > 0) {
+                    // Offline time is settled without event multipliers
+                    totalItems += applyProduction(generator, owner, generations, 1).getTotalItems();
+                }
+            }
+            
+            if (generator.isWorking()) {
+                long elapsedSeconds = (now - generator.getLastGeneration()) / 1000;
+                scheduleInSeconds(generator, Math.max(1, generator.getSpawnInterval() - elapsedSeconds));
             }
         }
         
-        // Update player stats
-        playerData.addItemsGenerated(multiplier);
-        
-        // Send message
-        String itemName = itemType.name().toLowerCase().replace("_", " ");
-        MessageUtil.sendMessage(owner, plugin.getConfigManager().getMessage("item_generated", "%item%", itemName));
+        if (totalItems > 0) {
+            MessageUtil.sendMessage(owner, plugin.getConfigManager().getMessage("offline_production",
+                "%amount%", MessageUtil.formatNumber(totalItems)));
+        }
     }
     
     /**
-     * Execute a command from a command generator
+     * Get the longest stretch of missed production that is made up for, from offline-production.max-hours
      */
-    private void executeCommand(Generator generator, Player owner) {
-        String command = generator.getCommand();
-        if (command == null || command.isEmpty()) return;
+    private long getMaxOfflineMillis() {
+        double maxHours = plugin.getConfigManager().getConfig().getDouble("offline-production.max-hours", 12);
+        return Math.max(0, (long) (maxHours * 3600000L));
+    }
+    
+    /**
+     * Get the generators placed in a chunk
+     */
+    private List<Generator> getChunkGenerators(World world, int chunkX, int chunkZ) {
+        Map<Long, List<Generator>> worldChunks = chunkGenerators.get(world.getUID());
+        if (worldChunks == null) return Collections.emptyList();
         
-        // Replace placeholders
-        command = command.replace("%player_name%", owner.getName());
-        command = command.replace("%player_uuid%", owner.getUniqueId().toString());
+        List<Generator> generators = worldChunks.get(BlockKeys.chunkKey(chunkX, chunkZ));
+        return generators == null ? Collections.emptyList() : new ArrayList<>(generators);
+    }
+    
+    /**
+     * Add a generator to the chunk and owner indexes
+     */
+    private void indexGenerator(Generator generator) {
+        ownerGenerators.add(generator);
         
-        // Execute command as console
-        Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
+        Location location = generator.getLocation();
+        chunkGenerators.computeIfAbsent(location.getWorld().getUID(), k -> new HashMap<>())
+            .computeIfAbsent(BlockKeys.chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4), k -> new ArrayList<>())
+            .add(generator);
     }
     
     /**
-     * Generate experience from an exp generator
+     * Remove a generator from the chunk and owner indexes
      */
-    private void generateExp(Generator generator, Player owner, PlayerData playerData, int multiplier) {
-        int expAmount = generator.getExpAmount() * multiplier;
+    private void unindexGenerator(Generator generator) {
+        ownerGenerators.remove(generator);
         
-        // Spawn experience orb at generator location
-        ExperienceOrb orb = owner.getWorld().spawn(
-            generator.getLocation().add(0.5, 1, 0.5), 
-            ExperienceOrb.class
-        );
-        orb.setExperience(expAmount);
+        Location location = generator.getLocation();
+        Map<Long, List<Generator>> worldChunks = chunkGenerators.get(location.getWorld().getUID());
+        if (worldChunks == null) return;
         
-        // Update player stats
-        playerData.addExpGenerated(expAmount);
+        long chunkKey = BlockKeys.chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        List<Generator> generators = worldChunks.get(chunkKey);
+        if (generators != null && generators.remove(generator) && generators.isEmpty()) {
+            worldChunks.remove(chunkKey);
+        }
     }
     
     /**
-     * Generate item from overclocked generator
+     * Restore a single persisted generator
+     * 
+     * @return the restored generator, or null if its type doesn't exist
      */
-    private void generateOverclockedItem(Generator generator, Player owner, PlayerData playerData, int multiplier) {
-        Material itemType = generator.getNextOverclockedItem();
-        if (itemType == null) return;
+    private Generator restoreGenerator(World world, StoredGenerator stored) {
+        GeneratorDefinition definition = definitions.get(stored.generatorId());
+        if (definition == null) {
+            return null;
+        }
         
-        ItemStack item = new ItemStack(itemType, multiplier);
+        long position = stored.position();
+        Location location = new Location(world,
+            BlockKeys.unpackX(position), BlockKeys.unpackY(position), BlockKeys.unpackZ(position));
         
-        // Try to add to inventory, drop if full
-        HashMap<Integer, ItemStack> leftover = owner.getInventory().addItem(item);
-        if (!leftover.isEmpty()) {
-            for (ItemStack drop : leftover.values()) {
-                owner.getWorld().dropItem(generator.getLocation().add(0, 1, 0), drop);
-            }
+        Generator generator = new Generator(definition, stored.ownerUUID(), location);
+        for (Map.Entry<Material, Long> entry : stored.storedItems().entrySet()) {
+            generator.setStoredAmount(entry.getKey(), entry.getValue());
         }
         
-        // Update player stats
-        playerData.addItemsGenerated(multiplier);
+        // Server downtime doesn't count as missed generations
+        long now = System.currentTimeMillis();
+        long lastGeneration = Math.max(stored.lastGeneration(), now - generator.getSpawnInterval() * 1000L);
+        generator.restoreState(lastGeneration, stored.currentGenerations(), stored.working());
         
-        // Check if generator should break
-        if (generator.getCurrentGenerations() >= generator.getMaxGenerations()) {
-            MessageUtil.sendMessage(owner, "&cYour overclocked generator has broken after reaching its limit!");
-            
-            // Announce if enabled
-            if (plugin.getConfigManager().getConfig().getBoolean("announcements.enabled", true)) {
-                String announcement = plugin.getConfigManager().getConfig().getString("announcements.overclocked_finish");
-                if (announcement != null) {
-                    MessageUtil.broadcast(announcement.replace("%player_name%", owner.getName()));
+        activeGenerators.put(location, generator);
+        indexGenerator(generator);
+        store.track(generator);
+        plugin.getSlotManager().recordRestored(generator);
+        
+        // Generators in chunks that are not loaded yet wait for their chunk
+        if (!world.isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4)) {
+            generator.setSuspendedSince(now);
+        } else if (generator.isWorking()) {
+            long elapsedSeconds = (now - lastGeneration) / 1000;
+            scheduleInSeconds(generator, Math.max(1, generator.getSpawnInterval() - elapsedSeconds));
+        }
+        
+        return generator;
+    }
+    
+    /**
+     * Create holograms for restored generators whose owner has holograms turned on
+     * 
+     * Owner data is looked up once per owner, offline owners are read in the background.
+     */
+    private void createRestoredHolograms(List<Generator> generators) {
+        if (generators.isEmpty() || !plugin.getConfigManager().isHologramsEnabled()) return;
+        
+        Map<UUID, List<Generator>> byOwner = new HashMap<>();
+        for (Generator generator : generators) {
+            byOwner.computeIfAbsent(generator.getOwnerUUID(), k -> new ArrayList<>()).add(generator);
+        }
+        
+        for (Map.Entry<UUID, List<Generator>> entry : byOwner.entrySet()) {
+            List<Generator> owned = entry.getValue();
+            plugin.getPlayerDataManager().loadPlayerData(entry.getKey(), playerData -> {
+                if (!playerData.isHologramsEnabled()) return;
+                
+                for (Generator generator : owned) {
+                    // The generator may have been removed while the owner was read
+                    if (activeGenerators.get(generator.getLocation()) == generator) {
+                        plugin.getHologramManager().createHologram(generator);
+                    }
                 }
+            });
+        }
+    }
+    
+    /**
+     * Save all generators and stop the storage writer and generation workers
+     */
+    public void saveGenerators() {
+        engine.shutdown();
+        store.shutdown();
+    }
+    
+    /**
+     * Get the configured number of generation worker threads, -1 picks one per spare core
+     */
+    private int getComputeThreads() {
+        int threads = plugin.getConfigManager().getConfig().getInt("scheduler.compute-threads", -1);
+        if (threads < 0) {
+            threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        }
+        return threads;
+    }
+    
+    /**
+     * Start the generator task that handles all generation
+     */
+    public void startGeneratorTasks() {
+        if (generatorTask != null) {
+            generatorTask.cancel();
+        }
+        
+        tickBudgetNanos = plugin.getConfigManager().getConfig().getLong("scheduler.tick-budget-us", 2000) * 1000L;
+        generatorTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                processAllGenerators();
             }
+        }.runTaskTimer(plugin, 1L, 1L); // Run every tick, generators are spread over the second
+        
+        store.startSaveTask();
+        
+        plugin.getLogger().info("Generator task started");
+    }
+    
+    /**
+     * Process the generators that are due this tick, within the tick budget.
+     * 
+     * Due generators are checked and handed to the generation engine, which computes their
+     * output (on worker threads if enabled). Computed outcomes are then applied. Whatever
+     * doesn't fit in the budget stays queued and goes first on the next tick.
+     */
+    private void processAllGenerators() {
+        long start = System.nanoTime();
+        long deadline = tickBudgetNanos > 0 ? start + tickBudgetNanos : Long.MAX_VALUE;
+        
+        MetricsManager metrics = plugin.getMetricsManager();
+        
+        // Due generators queue up behind the ones deferred from earlier ticks
+        scheduler.advance(backlog);
+        long scanned = System.nanoTime();
+        metrics.record(Phase.SCHEDULER_SCAN, scanned - start);
+        
+        // Each phase handles at least one entry per tick, so both queues always drain
+        int multiplier = plugin.getEventManager().isDoubleItemsActive() ? 2 : 1;
+        List<GenerationJob> jobs = new ArrayList<>();
+        Generator generator;
+        while ((generator = backlog.poll()) != null) {
+            dispatchDueGenerator(generator, multiplier, jobs);
+            if (System.nanoTime() >= deadline) break;
         }
+        engine.submit(jobs);
         
-        // Send message
-        String itemName = itemType.name().toLowerCase().replace("_", " ");
-        MessageUtil.sendMessage(owner, plugin.getConfigManager().getMessage("item_generated", "%item%", itemName));
+        lastAppliedCount = 0;
+        long applyStart = System.nanoTime();
+        GenerationOutcome outcome;
+        while ((outcome = engine.poll()) != null) {
+            applyOutcome(outcome);
+            lastAppliedCount++;
+            if (System.nanoTime() >= deadline) break;
+        }
+        if (lastAppliedCount > 0) {
+            metrics.record(Phase.GENERATION_APPLY, System.nanoTime() - applyStart);
+        }
+        
+        lastDeferredCount = backlog.size() + engine.getPendingCount();
+        totalDeferred += lastDeferredCount;
+        maxBacklog = Math.max(maxBacklog, lastDeferredCount);
+        
+        // Hand out everything generated this tick in one go
+        long flushStart = System.nanoTime();
+        plugin.getDeliveryManager().flush();
+        long delivered = System.nanoTime();
+        plugin.getEffectsManager().flush();
+        long end = System.nanoTime();
+        if (lastAppliedCount > 0) {
+            metrics.record(Phase.ITEM_DELIVERY, delivered - flushStart);
+            metrics.record(Phase.EFFECTS, end - delivered);
+        }
+        lastTickNanos = end - start;
     }
     
     /**
-     * Contribute to jackpot from jackpot generator
+     * Check a generator handed out by the scheduler and queue a job for it
      */
-    private void contributeToJackpot(Generator generator, Player owner, PlayerData playerData) {
-        int min = generator.getMinJackpotAmount();
-        int max = generator.getMaxJackpotAmount();
-        int amount = min + (int) (Math.random() * (max - min + 1));
+    private void dispatchDueGenerator(Generator generator, int multiplier, List<GenerationJob> jobs) {
+        if (!isAwaitingRun(generator)) {
+            return;
+        }
         
-        plugin.getJackpotManager().addToJackpot(amount);
-        playerData.addJackpotContribution();
+        // Check if the block still exists
+        Location location = generator.getLocation();
+        if (location.getBlock().getType() == Material.AIR) {
+            removeGenerator(location);
+            return;
+        }
         
-        MessageUtil.sendMessage(owner, plugin.getConfigManager().getMessage("jackpot_contributed", "%amount%", String.valueOf(amount)));
+        // Offline owners are settled in one go when they join
+        Player owner = Bukkit.getPlayer(generator.getOwnerUUID());
+        if (owner == null || !owner.isOnline()) {
+            parkGenerator(generator);
+            return;
+        }
+        
+        jobs.add(new GenerationJob(generator, generator.getCurrentGenerations(), multiplier));
     }
     
     /**
-     * Play generation effects
+     * Apply a computed generation and schedule the generator's next run
      */
-    private void playGenerationEffects(Location location, Generator generator) {
-        World world = location.getWorld();
-        if (world == null) return;
+    private void applyOutcome(GenerationOutcome outcome) {
+        Generator generator = outcome.generator();
+        if (!isAwaitingRun(generator)) {
+            return;
+        }
+        
+        // The owner may have left while the outcome was computed
+        Player owner = Bukkit.getPlayer(generator.getOwnerUUID());
+        if (owner == null || !owner.isOnline()) {
+            parkGenerator(generator);
+            return;
+        }
+        
+        // A time warp advanced the generator while the outcome was computed, run it again
+        // from its current state instead of overwriting the warped count
+        if (generator.getCurrentGenerations() != outcome.startGenerations()) {
+            scheduler.scheduleIn(generator, 1);
+            return;
+        }
+        
+        generator.setLastGeneration(System.currentTimeMillis());
+        generator.setCurrentGenerations(outcome.finalGenerationCount());
+        plugin.getMetricsManager().recordGeneration(generator.getType());
+        applyEffects(generator, owner, outcome.effects(), true);
+        
+        // Play generation effects, the hologram catches up on its own schedule
+        plugin.getEffectsManager().playGeneration(generator.getLocation());
+        store.markDirty(generator);
         
-        // Play sound
-        if (plugin.getConfigManager().isSoundsEnabled()) {
-            try {
-                Sound sound = Sound.valueOf(plugin.getConfigManager().getConfig().getString("sounds.item_generate", "ENTITY_EXPERIENCE_ORB_PICKUP"));
-                world.playSound(location, sound, 0.5f, 1.0f);
-            } catch (IllegalArgumentException e) {
-                // Invalid sound name, ignore
+        // Broken generators leave the wheel until they are repaired
+        if (generator.isWorking()) {
+            scheduleInSeconds(generator, generator.getSpawnInterval());
+        }
+    }
+    
+    /**
+     * Check that a generator taken off the wheel is still waiting for its run, i.e. it wasn't
+     * removed, rescheduled, broken, unloaded or parked in the meantime
+     */
+    private boolean isAwaitingRun(Generator generator) {
+        return activeGenerators.get(generator.getLocation()) == generator && generator.getNextFireTick() < 0
+            && generator.isWorking() && generator.getSuspendedSince() == 0 && !generator.isParked();
+    }
+    
+    /**
+     * Send generated items to the collector storage or to delivery
+     */
+    public void outputItems(Generator generator, Player owner, Material material, long amount) {
+        if (generator.isCollectorMode()) {
+            // Output beyond the collector capacity is lost until the owner empties it
+            generator.storeItems(material, amount, getCollectorCapacity());
+        } else {
+            plugin.getDeliveryManager().queueItems(owner.getUniqueId(), generator, material, amount);
+        }
+    }
+    
+    /**
+     * Move a collector's stored items into a player's inventory
+     * 
+     * @return the number of items withdrawn
+     */
+    public long withdrawCollected(Player player, Generator generator) {
+        Material[] materials = generator.getOutputMaterials();
+        List<ItemStack> stacks = new ArrayList<>();
+        for (int i = 0; i < materials.length; i++) {
+            long amount = generator.getStoredAmount(i);
+            int maxStackSize = Math.max(1, materials[i].getMaxStackSize());
+            while (amount > 0) {
+                int stackSize = (int) Math.min(amount, maxStackSize);
+                stacks.add(new ItemStack(materials[i], stackSize));
+                amount -= stackSize;
             }
         }
+        if (stacks.isEmpty()) return 0;
+        
+        long before = generator.getTotalStoredItems();
+        for (Material material : materials) {
+            generator.setStoredAmount(material, 0);
+        }
+        
+        // Whatever doesn't fit stays in the collector
+        for (ItemStack leftover : player.getInventory().addItem(stacks.toArray(new ItemStack[0])).values()) {
+            generator.storeItems(leftover.getType(), leftover.getAmount(), Long.MAX_VALUE);
+        }
+        
+        store.markDirty(generator);
+        if (plugin.getConfigManager().isHologramsEnabled()) {
+            // Only refresh the hologram if the owner has them turned on, an admin may be emptying it
+            plugin.getPlayerDataManager().loadPlayerData(generator.getOwnerUUID(), playerData -> {
+                if (playerData.isHologramsEnabled() && activeGenerators.get(generator.getLocation()) == generator) {
+                    plugin.getHologramManager().updateHologram(generator);
+                }
+            });
+        }
+        return before - generator.getTotalStoredItems();
+    }
+    
+    /**
+     * Get how many items of each material a collector can hold
+     */
+    private long getCollectorCapacity() {
+        return plugin.getConfigManager().getConfig().getLong("collector.capacity", 2304);
+    }
+    
+    /**
+     * Execute a command from a command generator
+     */
+    private void executeCommand(Generator generator, Player owner) {
+        String command = generator.getCommand();
+        if (command == null || command.isEmpty()) return;
+        
+        // Replace placeholders
+        command = command.replace("%player_name%", owner.getName());
+        command = command.replace("%player_uuid%", owner.getUniqueId().toString());
+        
+        // Execute command as console
+        Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
+    }
+    
+    /**
+     * Tell the owner their overclocked generator finished and announce it
+     */
+    private void announceOverclockedFinish(Player owner) {
+        MessageUtil.sendMessage(owner, "&cYour overclocked generator has broken after reaching its limit!");
         
-        // Spawn particles
-        if (plugin.getConfigManager().isParticlesEnabled()) {
-            try {
-                Particle particle = Particle.valueOf(plugin.getConfigManager().getConfig().getString("particles.generator_working", "HEART"));
-                world.spawnParticle(particle, location.add(0.5, 1, 0.5), 3, 0.2, 0.2, 0.2, 0);
-            } catch (IllegalArgumentException e) {
-                // Invalid particle name, ignore
+        // Announce if enabled
+        if (plugin.getConfigManager().getConfig().getBoolean("announcements.enabled", true)) {
+            String announcement = plugin.getConfigManager().getConfig().getString("announcements.overclocked_finish");
+            if (announcement != null) {
+                MessageUtil.broadcast(announcement.replace("%player_name%", owner.getName()));
             }
         }
     }
@@ -289,16 +791,15 @@ public class GeneratorManager {
      */
     public boolean placeGenerator(Player player, String generatorId, Location location) {
         // Check if generator configuration exists
-        ConfigurationSection config = generatorConfigs.get(generatorId);
-        if (config == null) {
+        GeneratorDefinition definition = definitions.get(generatorId);
+        if (definition == null) {
             MessageUtil.sendMessage(player, plugin.getConfigManager().getMessage("invalid_generator"));
             return false;
         }
         
-        // Check if player can place more generators
+        // Check the player's slots and the limits of this generator type
         PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(player);
-        if (!playerData.canPlaceGenerator()) {
-            MessageUtil.sendMessage(player, plugin.getConfigManager().getMessage("max_generators_reached"));
+        if (!plugin.getSlotManager().checkPlacement(player, playerData, definition)) {
             return false;
         }
         
@@ -311,16 +812,19 @@ public class GeneratorManager {
         }
         
         // Create and place generator
-        Generator generator = new Generator(generatorId, player.getUniqueId(), location, config);
+        Generator generator = new Generator(definition, player.getUniqueId(), location);
         
         // Set the block type
         location.getBlock().setType(generator.getBlockType());
         
         // Add to active generators
         activeGenerators.put(location, generator);
+        indexGenerator(generator);
+        scheduleInSeconds(generator, generator.getSpawnInterval());
+        store.track(generator);
         
         // Update player data
-        playerData.addGenerator(generatorId);
+        plugin.getSlotManager().recordPlaced(generator, playerData);
         
         // Send placement message
         MessageUtil.sendMessage(player, plugin.getConfigManager().getMessage("generator_placed",
@@ -333,7 +837,7 @@ public class GeneratorManager {
         }
         
         // Play placement effects
-        playPlacementEffects(location);
+        plugin.getEffectsManager().playPlacement(location);
         
         // Announce overclocked start if applicable
         if (generator.getType() == GeneratorType.OVERCLOCKED) {
@@ -355,12 +859,19 @@ public class GeneratorManager {
         Generator generator = activeGenerators.remove(location);
         if (generator == null) return false;
         
-        // Update player data
-        Player owner = Bukkit.getPlayer(generator.getOwnerUUID());
-        if (owner != null) {
-            PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(owner);
-            playerData.removeGenerator(generator.getId());
+        scheduler.release(generator);
+        if (generator.isParked()) {
+            List<Generator> parked = parkedGenerators.get(generator.getOwnerUUID());
+            if (parked != null && parked.remove(generator) && parked.isEmpty()) {
+                parkedGenerators.remove(generator.getOwnerUUID());
+            }
+            generator.setParked(false);
         }
+        unindexGenerator(generator);
+        store.untrack(generator);
+        
+        // Update player data, also when the owner is offline
+        plugin.getSlotManager().recordRemoved(generator);
         
         // Remove hologram
         plugin.getHologramManager().removeHologram(location);
@@ -368,6 +879,89 @@ public class GeneratorManager {
         return true;
     }
     
+    /**
+     * Put a generator back on the scheduler, e.g. after it has been repaired
+     */
+    public void scheduleGenerator(Generator generator) {
+        scheduler.unschedule(generator);
+        store.markDirty(generator);
+        if (generator.getSuspendedSince() > 0 || generator.isParked()) {
+            return; // Picked up again when its chunk loads or its owner joins
+        }
+        if (generator.isWorking() && activeGenerators.get(generator.getLocation()) == generator) {
+            scheduleInSeconds(generator, generator.getSpawnInterval());
+        }
+    }
+    
+    /**
+     * Schedule a generator a number of seconds from now, on its own tick within the second
+     */
+    private void scheduleInSeconds(Generator generator, long seconds) {
+        long target = scheduler.getCurrentTick() + seconds * TICKS_PER_SECOND;
+        
+        // Snap to the nearest tick of the generator's phase, so late runs don't drift
+        int offset = Math.floorMod(getPhase(generator) - target, TICKS_PER_SECOND);
+        if (offset >= TICKS_PER_SECOND / 2) {
+            offset -= TICKS_PER_SECOND;
+        }
+        scheduler.schedule(generator, target + offset);
+    }
+    
+    /**
+     * Get the tick within each second a generator runs on, spread by a hash of its position
+     */
+    private int getPhase(Generator generator) {
+        Location location = generator.getLocation();
+        long key = BlockKeys.pack(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        return Math.floorMod(Long.hashCode(key * 0x9E3779B97F4A7C15L), TICKS_PER_SECOND);
+    }
+    
+    /**
+     * Get the generator scheduler
+     */
+    public GeneratorScheduler getScheduler() {
+        return scheduler;
+    }
+    
+    /**
+     * Get the calculator used for batched production
+     */
+    public ProductionCalculator getProductionCalculator() {
+        return productionCalculator;
+    }
+    
+    /**
+     * Apply the state changes of a batch of generations that didn't advance the generator's clock, e.g. a time warp
+     */
+    public void applyBatchState(Generator generator, ProductionResult result) {
+        if (result.isEmpty()) return;
+        
+        generator.setCurrentGenerations(result.getFinalGenerationCount());
+        if (result.isBroken()) {
+            generator.setWorking(false);
+            scheduler.unschedule(generator);
+        }
+        store.markDirty(generator);
+    }
+    
+    /**
+     * Get the number of generators waiting for their owner to join
+     */
+    public int getParkedGeneratorCount() {
+        int count = 0;
+        for (List<Generator> generators : parkedGenerators.values()) {
+            count += generators.size();
+        }
+        return count;
+    }
+    
+    /**
+     * Get the generator store
+     */
+    public GeneratorStore getStore() {
+        return store;
+    }
+    
     /**
      * Get generator at location
      */
@@ -376,38 +970,42 @@ public class GeneratorManager {
     }
     
     /**
-     * Get all generators owned by a player
+     * Get generator at a packed block position
+     */
+    public Generator getGenerator(int worldIndex, long blockKey) {
+        return activeGenerators.get(worldIndex, blockKey);
+    }
+    
+    /**
+     * Get all generators owned by a player, as a read-only view of the owner index
      */
     public List<Generator> getPlayerGenerators(UUID playerUUID) {
-        return activeGenerators.values().stream()
-            .filter(gen -> gen.getOwnerUUID().equals(playerUUID))
-            .toList();
+        return ownerGenerators.get(playerUUID);
+    }
+    
+    /**
+     * Get the index of placed generators by owner, with per-owner counts
+     */
+    public OwnerIndex getOwnerIndex() {
+        return ownerGenerators;
     }
     
     /**
      * Create generator item
      */
     public ItemStack createGeneratorItem(String generatorId, int amount) {
-        ConfigurationSection config = generatorConfigs.get(generatorId);
-        if (config == null) return null;
-        
-        String blockTypeName = config.getString("block_type", "STONE");
-        Material blockType;
-        try {
-            blockType = Material.valueOf(blockTypeName);
-        } catch (IllegalArgumentException e) {
-            blockType = Material.STONE;
-        }
+        GeneratorDefinition definition = definitions.get(generatorId);
+        if (definition == null) return null;
         
-        ItemStack item = new ItemStack(blockType, amount);
+        ItemStack item = new ItemStack(definition.getBlockType(), amount);
         ItemMeta meta = item.getItemMeta();
         
         if (meta != null) {
-            meta.setDisplayName(MessageUtil.colorize(config.getString("name", "Generator")));
+            meta.setDisplayName(MessageUtil.colorize(definition.getName()));
             
             List<String> lore = new ArrayList<>();
-            lore.add(MessageUtil.colorize("&7Type: &f" + config.getString("type", "ITEM")));
-            lore.add(MessageUtil.colorize("&7Interval: &f" + config.getInt("spawn_interval", 5) + "s"));
+            lore.add(MessageUtil.colorize("&7Type: &f" + definition.getType().name()));
+            lore.add(MessageUtil.colorize("&7Interval: &f" + definition.getSpawnInterval() + "s"));
             lore.add("");
             lore.add(MessageUtil.colorize("&ePlace this block to create a generator!"));
             
@@ -431,28 +1029,13 @@ public class GeneratorManager {
         return true;
     }
     
-    /**
-     * Play placement effects
-     */
-    private void playPlacementEffects(Location location) {
-        World world = location.getWorld();
-        if (world == null) return;
-        
-        if (plugin.getConfigManager().isSoundsEnabled()) {
-            try {
-                Sound sound = Sound.valueOf(plugin.getConfigManager().getConfig().getString("sounds.generator_place", "BLOCK_STONE_PLACE"));
-                world.playSound(location, sound, 0.7f, 1.0f);
-            } catch (IllegalArgumentException e) {
-                // Invalid sound name, ignore
-            }
-        }
-    }
-    
     /**
      * Reload the generator manager
      */
     public void reload() {
         loadGeneratorConfigs();
+        rebindDefinitions();
+        restoreResolved();
         
         if (generatorTask != null) {
             generatorTask.cancel();
@@ -464,16 +1047,31 @@ public class GeneratorManager {
      * Get all generator IDs
      */
     public Set<String> getGeneratorIds() {
-        return generatorConfigs.keySet();
+        return definitions.keySet();
+    }
+    
+    /**
+     * Get the definition of a generator type
+     */
+    public GeneratorDefinition getDefinition(String generatorId) {
+        return definitions.get(generatorId);
     }
     
     /**
      * Check if generator ID exists
      */
     public boolean isValidGeneratorId(String generatorId) {
-        return generatorConfigs.containsKey(generatorId);
+        return definitions.containsKey(generatorId);
     }
     
+    // Tick metrics
+    public long getLastTickNanos() { return lastTickNanos; }
+    public int getLastDeferredCount() { return lastDeferredCount; }
+    public int getLastAppliedCount() { return lastAppliedCount; }
+    public GenerationEngine getEngine() { return engine; }
+    public long getTotalDeferred() { return totalDeferred; }
+    public int getMaxBacklog() { return maxBacklog; }
+    
     /**
      * Get total number of active generators
      */
@@ -485,11 +1083,12 @@ public class GeneratorManager {
      * Sync generators (recalculate generation times)
      */
     public void syncGenerators(UUID playerUUID) {
-        long currentTime = System.currentTimeMillis();
-        
+        long now = System.currentTimeMillis();
         for (Generator generator : getPlayerGenerators(playerUUID)) {
-            // Reset last generation time to sync all generators
-            generator.markGenerated();
+            // Syncing counts as a generation without output, wear and break rolls come from the calculator
+            applyBatchState(generator, productionCalculator.calculate(generator, 1, 1));
+            generator.setLastGeneration(now);
+            scheduleGenerator(generator);
         }
     }
 } 
\ No newline at end of file
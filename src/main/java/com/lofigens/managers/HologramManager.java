@@ -1,23 +1,87 @@
 package com.lofigens.managers;
 
 import com.lofigens.LofiGens;
+import com.lofigens.metrics.Phase;
 import com.lofigens.models.Generator;
-import com.lofigens.utils.MessageUtil;
+import com.lofigens.models.Hologram;
+import com.lofigens.utils.BlockKeyMap;
+import com.lofigens.utils.BlockKeys;
+import com.lofigens.utils.HologramRenderer;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.entity.ArmorStand;
-import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
+/**
+ * Generator holograms, shown only to players within holograms.view-distance blocks.
+ *
+ * Holograms are indexed by chunk. A periodic task looks up the holograms around every
+ * player who moved and shows or hides their displays per viewer. Holograms nobody is
+ * watching are frozen: they have no entity, are skipped by updates, and are rendered
+ * again when the first viewer comes close. Hologram work therefore follows where players
+ * are standing rather than the number of generators.
+ */
 public class HologramManager {
     
     private final LofiGens plugin;
-    private final Map<Location, ArmorStand> holograms;
+    private final BlockKeyMap<Hologram> holograms;
+    private final Map<UUID, Map<Long, List<Hologram>>> chunkHolograms;
+    private final Map<UUID, Set<Hologram>> viewing;
+    private final Map<UUID, Location> lastPositions;
+    private final Set<Hologram> watched;
+    private final HologramRenderer renderer;
+    private BukkitTask viewerTask;
+    private BukkitTask updateTask;
     
     public HologramManager(LofiGens plugin) {
         this.plugin = plugin;
-        this.holograms = new HashMap<>();
+        this.holograms = new BlockKeyMap<>();
+        this.chunkHolograms = new HashMap<>();
+        this.viewing = new HashMap<>();
+        this.lastPositions = new HashMap<>();
+        this.watched = new HashSet<>();
+        this.renderer = new HologramRenderer();
+    }
+    
+    /**
+     * Start the task that tracks which players can see which holograms
+     */
+    public void startViewerTask() {
+        if (viewerTask != null) {
+            viewerTask.cancel();
+        }
+        
+        long interval = Math.max(1, plugin.getConfigManager().getConfig().getInt("holograms.view-interval", 10));
+        viewerTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                long start = System.nanoTime();
+                updateViewers();
+                plugin.getMetricsManager().record(Phase.HOLOGRAM_VIEWERS, System.nanoTime() - start);
+            }
+        }.runTaskTimer(plugin, interval, interval);
+    }
+    
+    /**
+     * Start the task that refreshes hologram text every holograms.update-interval ticks
+     */
+    public void startUpdateTask() {
+        if (updateTask != null) {
+            updateTask.cancel();
+        }
+        
+        long interval = Math.max(1, plugin.getConfigManager().getConfig().getInt("holograms.update-interval", 20));
+        updateTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                long start = System.nanoTime();
+                updateAllHolograms();
+                plugin.getMetricsManager().record(Phase.HOLOGRAM_UPDATE, System.nanoTime() - start);
+            }
+        }.runTaskTimer(plugin, interval, interval);
     }
     
     /**
@@ -35,22 +99,10 @@ public class HologramManager {
         double heightOffset = plugin.getConfigManager().getConfig().getDouble("holograms.height-offset", 1.5);
         Location hologramLocation = location.clone().add(0.5, heightOffset, 0.5);
         
-        // Create armor stand as hologram
-        ArmorStand hologram = (ArmorStand) location.getWorld().spawnEntity(hologramLocation, EntityType.ARMOR_STAND);
-        
-        // Configure armor stand
-        hologram.setVisible(false);
-        hologram.setGravity(false);
-        hologram.setCanPickupItems(false);
-        hologram.setCustomNameVisible(true);
-        hologram.setMarker(true); // Makes it non-collidable
-        hologram.setInvulnerable(true);
-        
-        // Set initial name
-        updateHologramText(hologram, generator);
-        
-        // Store the hologram
+        // Rendered and spawned once a player comes close
+        Hologram hologram = new Hologram(plugin, location, hologramLocation);
         holograms.put(location, hologram);
+        indexHologram(hologram);
     }
     
     /**
@@ -61,63 +113,173 @@ public class HologramManager {
             return;
         }
         
-        ArmorStand hologram = holograms.get(generator.getLocation());
-        if (hologram != null && !hologram.isDead()) {
-            updateHologramText(hologram, generator);
+        Hologram hologram = holograms.get(generator.getLocation());
+        if (hologram != null) {
+            if (watched.contains(hologram)) {
+                renderer.render(generator, hologram);
+            }
         } else {
-            // Hologram doesn't exist or is dead, create a new one
+            // Hologram doesn't exist yet, create a new one
             createHologram(generator);
         }
     }
     
     /**
-     * Update hologram text
+     * Show and hide holograms as players move around
      */
-    private void updateHologramText(ArmorStand hologram, Generator generator) {
-        StringBuilder text = new StringBuilder();
+    private void updateViewers() {
+        if (holograms.isEmpty() && viewing.isEmpty()) return;
         
-        // Generator name
-        text.append(MessageUtil.colorize(generator.getName()));
+        int range = getViewDistance();
+        int radius = getChunkRadius(range);
+        double rangeSquared = (double) range * range;
+        Set<UUID> online = new HashSet<>();
         
-        if (generator.isWorking()) {
-            // Working status with progress
-            int timeUntilNext = generator.getTimeUntilNextGeneration();
-            if (timeUntilNext > 0) {
-                text.append("\n").append(MessageUtil.colorize("&7Next: &f" + timeUntilNext + "s"));
-            } else {
-                text.append("\n").append(MessageUtil.colorize("&aGenerating..."));
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            UUID playerUUID = player.getUniqueId();
+            online.add(playerUUID);
+            
+            // Nothing to do for players that stayed on the same block
+            Location location = player.getLocation();
+            Location last = lastPositions.get(playerUUID);
+            if (last != null && last.getWorld() == location.getWorld() && last.getBlockX() == location.getBlockX()
+                    && last.getBlockY() == location.getBlockY() && last.getBlockZ() == location.getBlockZ()) {
+                continue;
             }
+            lastPositions.put(playerUUID, location);
             
-            // Type-specific information
-            switch (generator.getType()) {
-                case OVERCLOCKED:
-                    int remaining = generator.getMaxGenerations() - generator.getCurrentGenerations();
-                    text.append("\n").append(MessageUtil.colorize("&7Remaining: &f" + remaining));
-                    break;
-                    
-                case UNSTABLE:
-                    double breakChance = generator.getBreakChance() * 100;
-                    text.append("\n").append(MessageUtil.colorize("&7Break Chance: &f" + String.format("%.1f%%", breakChance)));
-                    break;
+            Set<Hologram> visible = new HashSet<>();
+            Map<Long, List<Hologram>> worldChunks = chunkHolograms.get(location.getWorld().getUID());
+            if (worldChunks != null) {
+                int chunkX = location.getBlockX() >> 4;
+                int chunkZ = location.getBlockZ() >> 4;
+                for (int dx = -radius; dx <= radius; dx++) {
+                    for (int dz = -radius; dz <= radius; dz++) {
+                        List<Hologram> chunk = worldChunks.get(BlockKeys.chunkKey(chunkX + dx, chunkZ + dz));
+                        if (chunk == null) continue;
+                        for (Hologram hologram : chunk) {
+                            if (hologram.getLocation().distanceSquared(location) <= rangeSquared) {
+                                visible.add(hologram);
+                            }
+                        }
+                    }
+                }
             }
-        } else {
-            // Broken status
-            text.append("\n").append(MessageUtil.colorize("&cBROKEN"));
             
-            if (generator.getType() == generator.getType().UNSTABLE) {
-                text.append("\n").append(MessageUtil.colorize("&7Repair with: &f" + generator.getRepairCost() + " items"));
+            Set<Hologram> previous = viewing.getOrDefault(playerUUID, Collections.emptySet());
+            for (Hologram hologram : visible) {
+                if (!previous.contains(hologram)) {
+                    addViewer(hologram, player);
+                }
+            }
+            for (Hologram hologram : previous) {
+                if (!visible.contains(hologram)) {
+                    removeViewer(hologram, playerUUID, player);
+                }
+            }
+            
+            if (visible.isEmpty()) {
+                viewing.remove(playerUUID);
+            } else {
+                viewing.put(playerUUID, visible);
             }
         }
         
-        hologram.setCustomName(text.toString());
+        // Players that left stop viewing everything
+        lastPositions.keySet().retainAll(online);
+        viewing.entrySet().removeIf(entry -> {
+            if (online.contains(entry.getKey())) return false;
+            for (Hologram hologram : entry.getValue()) {
+                removeViewer(hologram, entry.getKey(), null);
+            }
+            return true;
+        });
+    }
+    
+    /**
+     * Show a hologram to a player, thawing it if they are the first viewer
+     */
+    private void addViewer(Hologram hologram, Player player) {
+        if (watched.add(hologram)) {
+            // Frozen until now, catch up before the display spawns
+            Generator generator = plugin.getGeneratorManager().getGenerator(hologram.getGeneratorLocation());
+            if (generator != null) {
+                renderer.render(generator, hologram);
+            }
+        }
+        hologram.addViewer(player);
+    }
+    
+    /**
+     * Hide a hologram from a player, freezing it if nobody else is watching
+     */
+    private void removeViewer(Hologram hologram, UUID playerUUID, Player player) {
+        hologram.removeViewer(playerUUID, player);
+        if (hologram.getViewers().isEmpty()) {
+            watched.remove(hologram);
+        }
+    }
+    
+    /**
+     * Add a hologram to the chunk index
+     */
+    private void indexHologram(Hologram hologram) {
+        Location location = hologram.getLocation();
+        int chunkX = location.getBlockX() >> 4;
+        int chunkZ = location.getBlockZ() >> 4;
+        chunkHolograms.computeIfAbsent(location.getWorld().getUID(), k -> new HashMap<>())
+            .computeIfAbsent(BlockKeys.chunkKey(chunkX, chunkZ), k -> new ArrayList<>())
+            .add(hologram);
+        
+        // Players standing still only get rescanned once their position is forgotten,
+        // so forget the players whose scan would reach the new hologram's chunk
+        int radius = getChunkRadius(getViewDistance());
+        lastPositions.values().removeIf(last -> last.getWorld() == location.getWorld()
+            && Math.abs((last.getBlockX() >> 4) - chunkX) <= radius
+            && Math.abs((last.getBlockZ() >> 4) - chunkZ) <= radius);
+    }
+    
+    private int getViewDistance() {
+        return Math.max(0, plugin.getConfigManager().getConfig().getInt("holograms.view-distance", 32));
+    }
+    
+    /**
+     * Get how many chunks around a player are scanned for holograms within the view distance
+     */
+    private static int getChunkRadius(int range) {
+        return (range + 15) >> 4;
+    }
+    
+    /**
+     * Remove a hologram from the chunk index and from its viewers
+     */
+    private void unindexHologram(Hologram hologram) {
+        Location location = hologram.getLocation();
+        Map<Long, List<Hologram>> worldChunks = chunkHolograms.get(location.getWorld().getUID());
+        if (worldChunks != null) {
+            long chunkKey = BlockKeys.chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+            List<Hologram> chunk = worldChunks.get(chunkKey);
+            if (chunk != null && chunk.remove(hologram) && chunk.isEmpty()) {
+                worldChunks.remove(chunkKey);
+            }
+        }
+        
+        watched.remove(hologram);
+        for (UUID viewer : hologram.getViewers()) {
+            Set<Hologram> viewed = viewing.get(viewer);
+            if (viewed != null) {
+                viewed.remove(hologram);
+            }
+        }
     }
     
     /**
      * Remove hologram at location
      */
     public void removeHologram(Location location) {
-        ArmorStand hologram = holograms.remove(location);
-        if (hologram != null && !hologram.isDead()) {
+        Hologram hologram = holograms.remove(location);
+        if (hologram != null) {
+            unindexHologram(hologram);
             hologram.remove();
         }
     }
@@ -126,12 +288,12 @@ public class HologramManager {
      * Remove all holograms
      */
     public void removeAllHolograms() {
-        for (ArmorStand hologram : holograms.values()) {
-            if (hologram != null && !hologram.isDead()) {
-                hologram.remove();
-            }
-        }
+        holograms.forEach(Hologram::remove);
         holograms.clear();
+        chunkHolograms.clear();
+        viewing.clear();
+        lastPositions.clear();
+        watched.clear();
     }
     
     /**
@@ -143,25 +305,14 @@ public class HologramManager {
             return;
         }
         
-        // This would be called from a repeating task
-        for (Map.Entry<Location, ArmorStand> entry : holograms.entrySet()) {
-            Location location = entry.getKey();
-            ArmorStand hologram = entry.getValue();
-            
-            // Check if hologram still exists
-            if (hologram == null || hologram.isDead()) {
-                holograms.remove(location);
-                continue;
-            }
-            
-            // Get generator at this location
-            Generator generator = plugin.getGeneratorManager().getGenerator(location);
+        // Frozen holograms are skipped, they catch up when a viewer arrives
+        for (Hologram hologram : new ArrayList<>(watched)) {
+            Generator generator = plugin.getGeneratorManager().getGenerator(hologram.getGeneratorLocation());
             if (generator != null) {
-                updateHologramText(hologram, generator);
+                renderer.render(generator, hologram);
             } else {
                 // Generator no longer exists, remove hologram
-                hologram.remove();
-                holograms.remove(location);
+                removeHologram(hologram.getGeneratorLocation());
             }
         }
     }
@@ -196,10 +347,18 @@ public class HologramManager {
         if (!plugin.getConfigManager().isHologramsEnabled()) {
             removeAllHolograms();
         } else {
+            holograms.forEach(Hologram::invalidate);
             updateAllHolograms();
         }
     }
     
+    /**
+     * Get the number of holograms with at least one viewer
+     */
+    public int getViewedHologramCount() {
+        return watched.size();
+    }
+    
     /**
      * Get hologram count
      */
@@ -211,7 +370,6 @@ public class HologramManager {
      * Check if hologram exists at location
      */
     public boolean hasHologram(Location location) {
-        ArmorStand hologram = holograms.get(location);
-        return hologram != null && !hologram.isDead();
+        return holograms.get(location) != null;
     }
 } 
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.lofigens.managers;
 
 import com.lofigens.LofiGens;
+import com.lofigens.metrics.Phase;
 import com.lofigens.utils.MessageUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -68,7 +69,9 @@ public class JackpotManager {
         jackpotTask = new BukkitRunnable() {
             @Override
             public void run() {
+                long start = System.nanoTime();
                 drawJackpot();
+                plugin.getMetricsManager().record(Phase.JACKPOT, System.nanoTime() - start);
             }
         }.runTaskTimer(plugin, drawTime * 20L, drawTime * 20L);
         
@@ -163,39 +166,12 @@ public class JackpotManager {
             .replace("%jackpot_amount%", formattedAmount));
         
         // Play effects
-        playJackpotEffects(winner);
+        plugin.getEffectsManager().playJackpotWin(winner);
         
         // Execute economy command (if you have an economy plugin)
         executeJackpotReward(winner, winAmount);
     }
     
-    /**
-     * Play jackpot win effects
-     */
-    private void playJackpotEffects(Player winner) {
-        if (plugin.getConfigManager().getConfig().getBoolean("jackpot.sounds.enabled", true)) {
-            try {
-                String soundName = plugin.getConfigManager().getConfig().getString("jackpot.sounds.sound_on_win", "ENTITY_PLAYER_LEVELUP");
-                var sound = org.bukkit.Sound.valueOf(soundName);
-                winner.playSound(winner.getLocation(), sound, 1.0f, 1.0f);
-            } catch (IllegalArgumentException e) {
-                // Invalid sound name
-            }
-        }
-        
-        if (plugin.getConfigManager().getConfig().getBoolean("jackpot.particles.enabled", true)) {
-            try {
-                String particleName = plugin.getConfigManager().getConfig().getString("jackpot.particles.particle_on_win", "HEART");
-                var particle = org.bukkit.Particle.valueOf(particleName);
-                int amount = plugin.getConfigManager().getConfig().getInt("jackpot.particles.amount", 10);
-                
-                winner.getWorld().spawnParticle(particle, winner.getLocation().add(0, 1, 0), amount, 1, 1, 1, 0);
-            } catch (IllegalArgumentException e) {
-                // Invalid particle name
-            }
-        }
-    }
-    
     /**
      * Execute jackpot reward (economy integration)
      */
@@ -0,0 +1,175 @@
+package com.lofigens.managers;
+
+import com.lofigens.LofiGens;
+import com.lofigens.models.Leaderboard;
+import com.lofigens.models.LeaderboardEntry;
+import com.lofigens.models.LeaderboardType;
+import com.lofigens.models.PlayerData;
+import com.lofigens.storage.PlayerSnapshot;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+
+/**
+ * Keeps the top players of every leaderboard, independently of which players are loaded.
+ *
+ * Boards are raised as players generate (PlayerData reports every increase) and corrected
+ * from the saved snapshot whenever a player's data is written, which also covers resets
+ * and name changes. They are persisted next to the player data.
+ *
+ * Boards change on the main thread only. Placeholders may read them from other threads, so
+ * changed boards are published to readers once per tick.
+ */
+public class LeaderboardManager implements PlayerData.StatListener {
+    
+    private final LofiGens plugin;
+    private final Map<LeaderboardType, Leaderboard> boards;
+    private boolean changed;
+    private BukkitTask publishTask;
+    
+    public LeaderboardManager(LofiGens plugin) {
+        this.plugin = plugin;
+        this.boards = new EnumMap<>(LeaderboardType.class);
+        int size = getConfiguredSize();
+        for (LeaderboardType type : LeaderboardType.values()) {
+            boards.put(type, new Leaderboard(size));
+        }
+    }
+    
+    /**
+     * Start the task that publishes changed boards to readers
+     */
+    public void startPublishTask() {
+        if (publishTask != null) {
+            publishTask.cancel();
+        }
+        
+        publishTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                publish();
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+    
+    /**
+     * Publish every board that changed since it was last published
+     */
+    private void publish() {
+        for (Leaderboard board : boards.values()) {
+            board.publish();
+        }
+    }
+    
+    private int getConfiguredSize() {
+        return Math.max(1, plugin.getConfigManager().getConfig().getInt("leaderboards.size", 10));
+    }
+    
+    /**
+     * Replace the boards with stored entries
+     */
+    public void load(Map<LeaderboardType, List<LeaderboardEntry>> stored) {
+        for (LeaderboardType type : LeaderboardType.values()) {
+            Leaderboard board = boards.get(type);
+            board.clear();
+            for (LeaderboardEntry entry : stored.getOrDefault(type, Collections.emptyList())) {
+                board.set(entry.playerUUID(), entry.playerName(), entry.value());
+            }
+        }
+        publish();
+    }
+    
+    /**
+     * Raise a player on a board as soon as their stat grows
+     */
+    @Override
+    public void onStatIncreased(PlayerData playerData, LeaderboardType type, long value) {
+        if (boards.get(type).increase(playerData.getPlayerUUID(), playerData.getPlayerName(), value)) {
+            changed = true;
+        }
+    }
+    
+    /**
+     * Update every board with a player's saved values
+     */
+    public void update(PlayerSnapshot snapshot) {
+        for (LeaderboardType type : LeaderboardType.values()) {
+            if (boards.get(type).set(snapshot.playerUUID(), snapshot.playerName(), type.getValue(snapshot))) {
+                changed = true;
+            }
+        }
+    }
+    
+    /**
+     * Remove a player from every board
+     */
+    public void remove(UUID playerUUID) {
+        for (Leaderboard board : boards.values()) {
+            if (board.remove(playerUUID)) {
+                changed = true;
+            }
+        }
+    }
+    
+    /**
+     * Clear every board
+     */
+    public void clear() {
+        for (Leaderboard board : boards.values()) {
+            board.clear();
+        }
+        changed = true;
+    }
+    
+    /**
+     * Get the top players of a board
+     */
+    public List<LeaderboardEntry> getTop(LeaderboardType type, int limit) {
+        return boards.get(type).toEntries(limit);
+    }
+    
+    /**
+     * Get the name of the player at a rank (starting at 0), or null if the rank is empty
+     */
+    public String getPlayerName(LeaderboardType type, int rank) {
+        return boards.get(type).getPlayerName(rank);
+    }
+    
+    /**
+     * Get the value at a rank (starting at 0) as text, or null if the rank is empty
+     */
+    public String getFormattedValue(LeaderboardType type, int rank) {
+        return boards.get(type).getFormattedValue(rank);
+    }
+    
+    /**
+     * Copy the boards for saving if they changed since the last call
+     *
+     * @return the boards, or null if nothing changed
+     */
+    public Map<LeaderboardType, List<LeaderboardEntry>> takeChanges() {
+        if (!changed) return null;
+        changed = false;
+        publish();
+        
+        Map<LeaderboardType, List<LeaderboardEntry>> copy = new EnumMap<>(LeaderboardType.class);
+        for (Map.Entry<LeaderboardType, Leaderboard> entry : boards.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().toEntries(Integer.MAX_VALUE));
+        }
+        return copy;
+    }
+    
+    /**
+     * Reload the leaderboard size
+     */
+    public void reload() {
+        int size = getConfiguredSize();
+        for (Leaderboard board : boards.values()) {
+            if (board.capacity() != size) {
+                board.resize(size);
+                changed = true;
+            }
+        }
+    }
+}
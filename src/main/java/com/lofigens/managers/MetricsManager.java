@@ -0,0 +1,176 @@
+package com.lofigens.managers;
+
+import com.lofigens.LofiGens;
+import com.lofigens.metrics.LatencyHistogram;
+import com.lofigens.metrics.Phase;
+import com.lofigens.metrics.PrometheusEndpoint;
+import com.lofigens.models.GeneratorType;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms of every phase of the plugin's work.
+ *
+ * Phases record their own durations, generations are counted per generator type, and a few
+ * gauges such as the number of active generators are sampled on the main thread once per
+ * second. Everything here may be read from any thread, so /generators stats and the optional
+ * Prometheus endpoint never touch the plugin's main-thread state.
+ */
+public class MetricsManager {
+
+    private static final GeneratorType[] TYPES = GeneratorType.values();
+
+    private final LofiGens plugin;
+    private final LatencyHistogram[] phases;
+    private final LatencyHistogram[] computeByType;
+    private final LongAdder[] generationsByType;
+    private volatile long resetAt;
+    private BukkitTask sampleTask;
+    private PrometheusEndpoint endpoint;
+
+    // Gauges, sampled on the main thread
+    private volatile int activeGenerators;
+    private volatile int scheduledGenerators;
+    private volatile int parkedGenerators;
+    private volatile int deferredGenerators;
+    private volatile int watchedHolograms;
+    private volatile int loadedPlayers;
+
+    public MetricsManager(LofiGens plugin) {
+        this.plugin = plugin;
+        this.phases = new LatencyHistogram[Phase.values().length];
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new LatencyHistogram();
+        }
+        this.computeByType = new LatencyHistogram[TYPES.length];
+        this.generationsByType = new LongAdder[TYPES.length];
+        for (int i = 0; i < TYPES.length; i++) {
+            computeByType[i] = new LatencyHistogram();
+            generationsByType[i] = new LongAdder();
+        }
+        this.resetAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Record how long one run of a phase took
+     */
+    public void record(Phase phase, long nanos) {
+        phases[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * Record how long computing one generation of a type took (called from worker threads)
+     */
+    public void recordCompute(GeneratorType type, long nanos) {
+        phases[Phase.GENERATION_COMPUTE.ordinal()].record(nanos);
+        computeByType[type.ordinal()].record(nanos);
+    }
+
+    /**
+     * Count an applied generation
+     */
+    public void recordGeneration(GeneratorType type) {
+        generationsByType[type.ordinal()].increment();
+    }
+
+    /**
+     * Start sampling the gauges once per second
+     */
+    public void startSampleTask() {
+        if (sampleTask != null) {
+            sampleTask.cancel();
+        }
+
+        sampleTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                sampleGauges();
+            }
+        }.runTaskTimer(plugin, 20L, 20L);
+    }
+
+    private void sampleGauges() {
+        GeneratorManager generatorManager = plugin.getGeneratorManager();
+        activeGenerators = generatorManager.getTotalActiveGenerators();
+        scheduledGenerators = generatorManager.getScheduler().getSize();
+        parkedGenerators = generatorManager.getParkedGeneratorCount();
+        deferredGenerators = generatorManager.getLastDeferredCount();
+        watchedHolograms = plugin.getHologramManager().getViewedHologramCount();
+        loadedPlayers = plugin.getPlayerDataManager().getTotalPlayers();
+    }
+
+    /**
+     * Start or stop the Prometheus endpoint as configured
+     */
+    public void startEndpoint() {
+        stopEndpoint();
+
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        if (!config.getBoolean("metrics.http.enabled", false)) return;
+
+        String bind = config.getString("metrics.http.bind", "127.0.0.1");
+        int port = config.getInt("metrics.http.port", 9464);
+        endpoint = new PrometheusEndpoint(this);
+        try {
+            endpoint.start(bind, port);
+            plugin.getLogger().info("Serving metrics on http://" + bind + ":" + port + "/metrics");
+        } catch (Exception e) {
+            plugin.getLogger().warning("Could not serve metrics on " + bind + ":" + port + ": " + e.getMessage());
+            endpoint = null;
+        }
+    }
+
+    private void stopEndpoint() {
+        if (endpoint != null) {
+            endpoint.stop();
+            endpoint = null;
+        }
+    }
+
+    /**
+     * Forget everything recorded so far
+     */
+    public void reset() {
+        for (LatencyHistogram histogram : phases) {
+            histogram.reset();
+        }
+        for (int i = 0; i < TYPES.length; i++) {
+            computeByType[i].reset();
+            generationsByType[i].reset();
+        }
+        resetAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Stop the sampling task and the endpoint
+     */
+    public void shutdown() {
+        if (sampleTask != null) {
+            sampleTask.cancel();
+        }
+        stopEndpoint();
+    }
+
+    /**
+     * Reload the endpoint settings
+     */
+    public void reload() {
+        startEndpoint();
+    }
+
+    public LatencyHistogram getPhase(Phase phase) { return phases[phase.ordinal()]; }
+    public LatencyHistogram getCompute(GeneratorType type) { return computeByType[type.ordinal()]; }
+    public long getGenerations(GeneratorType type) { return generationsByType[type.ordinal()].sum(); }
+    public long getResetAt() { return resetAt; }
+
+    // Gauges
+    public int getActiveGenerators() { return activeGenerators; }
+    public int getScheduledGenerators() { return scheduledGenerators; }
+    public int getParkedGenerators() { return parkedGenerators; }
+    public int getDeferredGenerators() { return deferredGenerators; }
+    public int getWatchedHolograms() { return watchedHolograms; }
+    public int getLoadedPlayers() { return loadedPlayers; }
+}
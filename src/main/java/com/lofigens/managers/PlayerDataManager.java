@@ -1,173 +1,302 @@
 package com.lofigens.managers;
 
 import com.lofigens.LofiGens;
+import com.lofigens.metrics.Phase;
+import com.lofigens.models.LeaderboardEntry;
+import com.lofigens.models.LeaderboardType;
 import com.lofigens.models.PlayerData;
-import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.file.FileConfiguration;
+import com.lofigens.storage.PlayerDataStore;
+import com.lofigens.storage.PlayerSnapshot;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.logging.Level;
 
 public class PlayerDataManager {
     
     private final LofiGens plugin;
-    private final Map<UUID, PlayerData> playerDataMap;
+    private final Map<UUID, PlayerData> playerDataMap;   // Online players and recently used offline players
+    private final Map<UUID, Long> unloadTimes;           // When offline players' data may be unloaded
+    private final Set<UUID> loading;                     // Offline players being read for getPlayerData
+    private final PlayerDataStore store;
+    private BukkitTask saveTask;
     
     public PlayerDataManager(LofiGens plugin) {
         this.plugin = plugin;
         this.playerDataMap = new ConcurrentHashMap<>();
-        loadAllPlayerData();
+        this.unloadTimes = new ConcurrentHashMap<>();
+        this.loading = ConcurrentHashMap.newKeySet();
+        this.store = new PlayerDataStore(plugin);
+        loadLeaderboards();
+        loadOnlinePlayers();
     }
     
     /**
-     * Load all player data from configuration file
+     * Start the periodic task that writes changed player data
      */
-    private void loadAllPlayerData() {
-        FileConfiguration config = plugin.getConfigManager().getPlayersConfig();
+    public void startSaveTask() {
+        if (saveTask != null) {
+            saveTask.cancel();
+        }
         
-        if (config.getConfigurationSection("players") == null) {
+        long interval = Math.max(1, plugin.getConfigManager().getConfig().getInt("storage.player-save-interval", 60)) * 20L;
+        saveTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                saveAllData();
+                unloadExpiredPlayers();
+            }
+        }.runTaskTimer(plugin, interval, interval);
+    }
+    
+    /**
+     * Load the leaderboards, seeding them from players.yml if it still has to be migrated
+     */
+    private void loadLeaderboards() {
+        LeaderboardManager leaderboards = plugin.getLeaderboardManager();
+        leaderboards.load(store.loadLeaderboards());
+        
+        List<PlayerSnapshot> migrated = store.migrateLegacyFile();
+        if (!migrated.isEmpty()) {
+            for (PlayerSnapshot snapshot : migrated) {
+                leaderboards.update(snapshot);
+            }
+            saveLeaderboards();
+        }
+    }
+    
+    /**
+     * Load the players that are already online, e.g. after a reload
+     * 
+     * Enabling reads them on the calling thread, so their data is there before the first tick.
+     */
+    private void loadOnlinePlayers() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            playerDataMap.put(player.getUniqueId(), loadOrCreate(player.getUniqueId()));
+        }
+    }
+    
+    /**
+     * Load a player's data before they join (runs on the login thread, which may wait for the read)
+     */
+    public void preloadPlayerData(UUID playerUUID) {
+        unloadTimes.remove(playerUUID);
+        if (!playerDataMap.containsKey(playerUUID)) {
+            playerDataMap.putIfAbsent(playerUUID, loadOrCreate(playerUUID));
+        }
+    }
+    
+    /**
+     * Keep a player's data around for the unload delay after they quit
+     */
+    public void handlePlayerQuit(UUID playerUUID) {
+        savePlayerData(playerUUID);
+        scheduleUnload(playerUUID);
+    }
+    
+    /**
+     * Load a player's data, which may be offline, and pass it to the consumer on the main thread
+     * 
+     * If the file can't be read the failure is logged and the consumer gets new data, as it
+     * does for a player without a file, so callers such as slot releases always run.
+     */
+    public void loadPlayerData(UUID playerUUID, Consumer<PlayerData> consumer) {
+        PlayerData loaded = playerDataMap.get(playerUUID);
+        if (loaded != null) {
+            consumer.accept(loaded);
             return;
         }
         
-        ConfigurationSection playersSection = config.getConfigurationSection("players");
-        
-        for (String uuidString : playersSection.getKeys(false)) {
-            try {
-                UUID playerUUID = UUID.fromString(uuidString);
-                ConfigurationSection playerSection = playersSection.getConfigurationSection(uuidString);
-                
-                if (playerSection != null) {
-                    PlayerData playerData = loadPlayerDataFromConfig(playerUUID, playerSection);
-                    playerDataMap.put(playerUUID, playerData);
+        store.loadAsync(playerUUID).whenComplete((snapshot, error) -> {
+            if (error != null) {
+                plugin.getLogger().log(Level.SEVERE, "Could not load player data of " + playerUUID, error);
+            }
+            if (!plugin.isEnabled()) return;
+            
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                PlayerData playerData = playerDataMap.computeIfAbsent(playerUUID,
+                    uuid -> snapshot == null ? createPlayerData(uuid) : fromSnapshot(snapshot));
+                if (Bukkit.getPlayer(playerUUID) == null) {
+                    scheduleUnload(playerUUID);
                 }
-            } catch (IllegalArgumentException e) {
-                plugin.getLogger().warning("Invalid UUID in players.yml: " + uuidString);
+                consumer.accept(playerData);
+            });
+        });
+    }
+    
+    private void scheduleUnload(UUID playerUUID) {
+        long delay = Math.max(0, plugin.getConfigManager().getConfig().getLong("storage.player-unload-delay", 300)) * 1000L;
+        unloadTimes.put(playerUUID, System.currentTimeMillis() + delay);
+    }
+    
+    /**
+     * Save and unload offline players whose unload delay has passed
+     */
+    private void unloadExpiredPlayers() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<UUID, Long>> iterator = unloadTimes.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Long> entry = iterator.next();
+            if (entry.getValue() > now) continue;
+            
+            iterator.remove();
+            if (Bukkit.getPlayer(entry.getKey()) == null) {
+                savePlayerData(entry.getKey());
+                playerDataMap.remove(entry.getKey());
             }
         }
-        
-        plugin.getLogger().info("Loaded data for " + playerDataMap.size() + " players");
     }
     
     /**
-     * Load player data from configuration section
+     * Read a player from the store or create new data
+     */
+    private PlayerData loadOrCreate(UUID playerUUID) {
+        PlayerSnapshot snapshot = store.load(playerUUID);
+        return snapshot == null ? createPlayerData(playerUUID) : fromSnapshot(snapshot);
+    }
+    
+    /**
+     * Create new player data with default values
      */
-    private PlayerData loadPlayerDataFromConfig(UUID playerUUID, ConfigurationSection section) {
-        String playerName = section.getString("name", "Unknown");
-        int generatorSlots = section.getInt("generator_slots", plugin.getConfigManager().getDefaultGeneratorSlots());
+    private PlayerData createPlayerData(UUID playerUUID) {
+        PlayerData playerData = new PlayerData(
+            playerUUID, 
+            "Unknown", 
+            plugin.getConfigManager().getDefaultGeneratorSlots(),
+            plugin.getConfigManager().getMaxGeneratorSlots()
+        );
+        playerData.setDirty(true);
+        playerData.setStatListener(plugin.getLeaderboardManager());
+        return playerData;
+    }
+    
+    /**
+     * Create player data from a stored snapshot
+     */
+    private PlayerData fromSnapshot(PlayerSnapshot snapshot) {
         int maxSlots = plugin.getConfigManager().getMaxGeneratorSlots();
-        
-        PlayerData playerData = new PlayerData(playerUUID, playerName, generatorSlots, maxSlots);
+        PlayerData playerData = new PlayerData(snapshot.playerUUID(), snapshot.playerName(), snapshot.generatorSlots(), maxSlots);
         
         // Load other data
-        playerData.setHologramsEnabled(section.getBoolean("holograms_enabled", true));
-        playerData.setTotalItemsGenerated(section.getLong("total_items_generated", 0));
-        playerData.setTotalExpGenerated(section.getLong("total_exp_generated", 0));
-        playerData.setJackpotContributions(section.getInt("jackpot_contributions", 0));
-        
-        // Load generator counts
-        ConfigurationSection generatorCountsSection = section.getConfigurationSection("generator_counts");
-        if (generatorCountsSection != null) {
-            Map<String, Integer> generatorCounts = new HashMap<>();
-            for (String generatorId : generatorCountsSection.getKeys(false)) {
-                generatorCounts.put(generatorId, generatorCountsSection.getInt(generatorId));
-            }
-            playerData.setGeneratorCounts(generatorCounts);
-        }
+        playerData.setHologramsEnabled(snapshot.hologramsEnabled());
+        playerData.setTotalItemsGenerated(snapshot.totalItemsGenerated());
+        playerData.setTotalExpGenerated(snapshot.totalExpGenerated());
+        playerData.setJackpotContributions(snapshot.jackpotContributions());
+        playerData.setGeneratorCounts(new HashMap<>(snapshot.generatorCounts()));
         
+        // Freshly loaded data matches what is on disk
+        playerData.setDirty(false);
+        playerData.setStatListener(plugin.getLeaderboardManager());
         return playerData;
     }
     
     /**
-     * Get or create player data
+     * Get a player's data if it is loaded, never waiting for a read
+     * 
+     * Data that isn't loaded is read in the background and is there on a later call. Use
+     * loadPlayerData where a callback is possible.
+     * 
+     * @return the player's data, or null while it is being read
      */
     public PlayerData getPlayerData(UUID playerUUID) {
-        return playerDataMap.computeIfAbsent(playerUUID, uuid -> {
-            // Create new player data with default values
-            return new PlayerData(
-                uuid, 
-                "Unknown", 
-                plugin.getConfigManager().getDefaultGeneratorSlots(),
-                plugin.getConfigManager().getMaxGeneratorSlots()
-            );
-        });
+        PlayerData playerData = playerDataMap.get(playerUUID);
+        if (playerData == null && loading.add(playerUUID)) {
+            loadPlayerData(playerUUID, loaded -> loading.remove(playerUUID));
+        }
+        return playerData;
     }
     
     /**
-     * Get or create player data by player object
+     * Get the data of an online player
+     * 
+     * Online players are read before they join, only a reset or removal leaves them without
+     * data, in which case they start over with new data.
      */
     public PlayerData getPlayerData(Player player) {
-        PlayerData data = getPlayerData(player.getUniqueId());
+        PlayerData data = playerDataMap.computeIfAbsent(player.getUniqueId(), this::createPlayerData);
         data.setPlayerName(player.getName()); // Update name in case it changed
         return data;
     }
     
     /**
-     * Save player data to configuration
+     * Queue a player's data to be written if it changed
      */
     public void savePlayerData(UUID playerUUID) {
         PlayerData playerData = playerDataMap.get(playerUUID);
-        if (playerData == null) return;
-        
-        FileConfiguration config = plugin.getConfigManager().getPlayersConfig();
-        String path = "players." + playerUUID.toString();
-        
-        config.set(path + ".name", playerData.getPlayerName());
-        config.set(path + ".generator_slots", playerData.getGeneratorSlots());
-        config.set(path + ".holograms_enabled", playerData.isHologramsEnabled());
-        config.set(path + ".total_items_generated", playerData.getTotalItemsGenerated());
-        config.set(path + ".total_exp_generated", playerData.getTotalExpGenerated());
-        config.set(path + ".jackpot_contributions", playerData.getJackpotContributions());
+        if (playerData == null || !playerData.isDirty()) return;
         
-        // Save generator counts
-        config.set(path + ".generator_counts", null); // Clear existing
-        if (!playerData.getGeneratorCounts().isEmpty()) {
-            for (Map.Entry<String, Integer> entry : playerData.getGeneratorCounts().entrySet()) {
-                config.set(path + ".generator_counts." + entry.getKey(), entry.getValue());
+        PlayerSnapshot snapshot = playerData.snapshot();
+        plugin.getLeaderboardManager().update(snapshot);
+        store.save(List.of(snapshot));
+    }
+    
+    /**
+     * Queue every changed player to be written in a single file write
+     */
+    public void saveAllData() {
+        long start = System.nanoTime();
+        List<PlayerSnapshot> snapshots = new ArrayList<>();
+        for (PlayerData playerData : playerDataMap.values()) {
+            if (playerData.isDirty()) {
+                PlayerSnapshot snapshot = playerData.snapshot();
+                plugin.getLeaderboardManager().update(snapshot);
+                snapshots.add(snapshot);
             }
         }
-        
-        plugin.getConfigManager().savePlayersConfig();
+        store.save(snapshots);
+        saveLeaderboards();
+        if (!snapshots.isEmpty()) {
+            plugin.getMetricsManager().record(Phase.PLAYER_SAVE, System.nanoTime() - start);
+        }
     }
     
     /**
-     * Save all player data
+     * Queue the leaderboards to be written if they changed
      */
-    public void saveAllData() {
-        for (UUID playerUUID : playerDataMap.keySet()) {
-            savePlayerData(playerUUID);
+    private void saveLeaderboards() {
+        Map<LeaderboardType, List<LeaderboardEntry>> boards = plugin.getLeaderboardManager().takeChanges();
+        if (boards != null) {
+            store.saveLeaderboards(boards);
+        }
+    }
+    
+    /**
+     * Write everything that changed and wait for the writer thread to finish
+     */
+    public void shutdown() {
+        if (saveTask != null) {
+            saveTask.cancel();
         }
-        plugin.getLogger().info("Saved data for " + playerDataMap.size() + " players");
+        
+        saveAllData();
+        store.shutdown();
+        plugin.getLogger().info("Saved data for " + playerDataMap.size() + " loaded players");
     }
     
     /**
      * Get top players by items generated
      */
-    public List<PlayerData> getTopPlayersByItems(int limit) {
-        return playerDataMap.values().stream()
-            .sorted((a, b) -> Long.compare(b.getTotalItemsGenerated(), a.getTotalItemsGenerated()))
-            .limit(limit)
-            .toList();
+    public List<LeaderboardEntry> getTopPlayersByItems(int limit) {
+        return plugin.getLeaderboardManager().getTop(LeaderboardType.ITEMS, limit);
     }
     
     /**
      * Get top players by exp generated
      */
-    public List<PlayerData> getTopPlayersByExp(int limit) {
-        return playerDataMap.values().stream()
-            .sorted((a, b) -> Long.compare(b.getTotalExpGenerated(), a.getTotalExpGenerated()))
-            .limit(limit)
-            .toList();
+    public List<LeaderboardEntry> getTopPlayersByExp(int limit) {
+        return plugin.getLeaderboardManager().getTop(LeaderboardType.EXP, limit);
     }
     
     /**
      * Get top players by jackpot contributions
      */
-    public List<PlayerData> getTopPlayersByJackpot(int limit) {
-        return playerDataMap.values().stream()
-            .sorted((a, b) -> Integer.compare(b.getJackpotContributions(), a.getJackpotContributions()))
-            .limit(limit)
-            .toList();
+    public List<LeaderboardEntry> getTopPlayersByJackpot(int limit) {
+        return plugin.getLeaderboardManager().getTop(LeaderboardType.JACKPOT, limit);
     }
     
     /**
@@ -175,10 +304,10 @@ public class PlayerDataManager {
      */
     public void resetAllData() {
         playerDataMap.clear();
-        
-        FileConfiguration config = plugin.getConfigManager().getPlayersConfig();
-        config.set("players", null);
-        plugin.getConfigManager().savePlayersConfig();
+        unloadTimes.clear();
+        store.deleteAll();
+        plugin.getLeaderboardManager().clear();
+        saveLeaderboards();
         
         plugin.getLogger().info("Reset all player data");
     }
@@ -188,14 +317,14 @@ public class PlayerDataManager {
      */
     public void removePlayerData(UUID playerUUID) {
         playerDataMap.remove(playerUUID);
-        
-        FileConfiguration config = plugin.getConfigManager().getPlayersConfig();
-        config.set("players." + playerUUID.toString(), null);
-        plugin.getConfigManager().savePlayersConfig();
+        unloadTimes.remove(playerUUID);
+        store.delete(playerUUID);
+        plugin.getLeaderboardManager().remove(playerUUID);
+        saveLeaderboards();
     }
     
     /**
-     * Get all loaded player data
+     * Get the data of every loaded player (online players and recently used offline players)
      */
     public Collection<PlayerData> getAllPlayerData() {
         return playerDataMap.values();
@@ -209,9 +338,27 @@ public class PlayerDataManager {
     }
     
     /**
-     * Get total number of players with data
+     * Get the number of players whose data is loaded
      */
     public int getTotalPlayers() {
         return playerDataMap.size();
     }
+    
+    /**
+     * Get the number of players with unsaved changes
+     */
+    public int getDirtyPlayerCount() {
+        int count = 0;
+        for (PlayerData playerData : playerDataMap.values()) {
+            if (playerData.isDirty()) count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Get the player data store
+     */
+    public PlayerDataStore getStore() {
+        return store;
+    }
 } 
\ No newline at end of file
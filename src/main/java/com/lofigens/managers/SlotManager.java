@@ -0,0 +1,182 @@
+package com.lofigens.managers;
+
+import com.lofigens.LofiGens;
+import com.lofigens.models.Generator;
+import com.lofigens.models.GeneratorDefinition;
+import com.lofigens.models.GeneratorType;
+import com.lofigens.models.PlayerData;
+import com.lofigens.utils.MessageUtil;
+import com.lofigens.utils.OwnerIndex;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+
+import java.util.*;
+
+/**
+ * Generator slot accounting.
+ *
+ * The placed counts in the player data are the persisted record of what a player owns,
+ * including generators in regions that are not loaded. They are updated on every place and
+ * remove, also for offline owners. Whenever the owner index sees more generators of a type
+ * than the player data records (e.g. after counts drifted in older versions), the count is
+ * raised to match, one owner and type at a time as regions load.
+ *
+ * Besides the overall slots, placement can be limited per generator type and per generator ID.
+ */
+public class SlotManager {
+
+    private final LofiGens plugin;
+    private final Map<GeneratorType, Integer> typeLimits;
+    private final Map<String, Integer> generatorLimits;
+
+    // Statistics
+    private long reconciledCounts;
+
+    public SlotManager(LofiGens plugin) {
+        this.plugin = plugin;
+        this.typeLimits = new EnumMap<>(GeneratorType.class);
+        this.generatorLimits = new HashMap<>();
+        loadLimits();
+    }
+
+    /**
+     * Read the per-type and per-generator limits
+     */
+    private void loadLimits() {
+        typeLimits.clear();
+        generatorLimits.clear();
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+
+        ConfigurationSection types = config.getConfigurationSection("limits.types");
+        if (types != null) {
+            for (String key : types.getKeys(false)) {
+                try {
+                    typeLimits.put(GeneratorType.valueOf(key.toUpperCase()), types.getInt(key));
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Invalid generator type in limits: " + key);
+                }
+            }
+        }
+
+        ConfigurationSection generators = config.getConfigurationSection("limits.generators");
+        if (generators != null) {
+            for (String key : generators.getKeys(false)) {
+                generatorLimits.put(key, generators.getInt(key));
+            }
+        }
+    }
+
+    /**
+     * Check every limit for placing a generator and tell the player which one they hit
+     *
+     * @return true if the generator may be placed
+     */
+    public boolean checkPlacement(Player player, PlayerData playerData, GeneratorDefinition definition) {
+        reconcile(player.getUniqueId(), playerData, definition.getId());
+
+        if (!playerData.canPlaceGenerator()) {
+            MessageUtil.sendMessage(player, plugin.getConfigManager().getMessage("max_generators_reached"));
+            return false;
+        }
+
+        Integer generatorLimit = generatorLimits.get(definition.getId());
+        if (generatorLimit != null && generatorLimit >= 0 && playerData.getGeneratorCount(definition.getId()) >= generatorLimit) {
+            sendLimitReached(player, definition.getType(), generatorLimit);
+            return false;
+        }
+
+        Integer typeLimit = typeLimits.get(definition.getType());
+        if (typeLimit != null && typeLimit >= 0 && getTypeCount(playerData, definition.getType()) >= typeLimit) {
+            sendLimitReached(player, definition.getType(), typeLimit);
+            return false;
+        }
+
+        return true;
+    }
+
+    private void sendLimitReached(Player player, GeneratorType type, int limit) {
+        if (type == GeneratorType.JACKPOT) {
+            MessageUtil.sendMessage(player, plugin.getConfigManager().getConfig().getString("jackpot.messages.jackpot_limit_reached",
+                "&cYou have reached the maximum limit of Jackpot generators you can place."));
+            return;
+        }
+        MessageUtil.sendMessage(player, plugin.getConfigManager().getMessage("generator_limit_reached",
+            "%limit%", String.valueOf(limit),
+            "%type%", type.name()));
+    }
+
+    /**
+     * Get how many generators of a type a player has placed, from the counts per generator ID
+     */
+    public int getTypeCount(PlayerData playerData, GeneratorType type) {
+        GeneratorManager generatorManager = plugin.getGeneratorManager();
+        int count = 0;
+        for (Map.Entry<String, Integer> entry : playerData.getGeneratorCounts().entrySet()) {
+            GeneratorDefinition definition = generatorManager.getDefinition(entry.getKey());
+            if (definition != null && definition.getType() == type) {
+                count += entry.getValue();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Count a newly placed generator
+     */
+    public void recordPlaced(Generator generator, PlayerData playerData) {
+        playerData.addGenerator(generator.getId());
+    }
+
+    /**
+     * Release the slot of a removed generator, loading the owner's data if they are offline
+     */
+    public void recordRemoved(Generator generator) {
+        String generatorId = generator.getId();
+        plugin.getPlayerDataManager().loadPlayerData(generator.getOwnerUUID(), playerData -> playerData.removeGenerator(generatorId));
+    }
+
+    /**
+     * Check a restored generator against its owner's counts, if their data is loaded.
+     * Owners that are not loaded are checked when they next place a generator of the type.
+     */
+    public void recordRestored(Generator generator) {
+        UUID ownerUUID = generator.getOwnerUUID();
+        if (!plugin.getPlayerDataManager().isPlayerDataLoaded(ownerUUID)) return;
+
+        reconcile(ownerUUID, plugin.getPlayerDataManager().getPlayerData(ownerUUID), generator.getId());
+    }
+
+    /**
+     * Raise a recorded count to what the owner index holds for an owner and generator ID
+     */
+    private void reconcile(UUID ownerUUID, PlayerData playerData, String generatorId) {
+        OwnerIndex index = plugin.getGeneratorManager().getOwnerIndex();
+        int indexed = index.countById(ownerUUID, generatorId);
+        if (indexed > playerData.getGeneratorCount(generatorId)) {
+            playerData.setGeneratorCount(generatorId, indexed);
+            reconciledCounts++;
+        }
+    }
+
+    /**
+     * Get the limit for a generator type, or -1 if there is none
+     */
+    public int getTypeLimit(GeneratorType type) {
+        return typeLimits.getOrDefault(type, -1);
+    }
+
+    /**
+     * Get the number of counts corrected from the owner index
+     */
+    public long getReconciledCounts() {
+        return reconciledCounts;
+    }
+
+    /**
+     * Reload the limits
+     */
+    public void reload() {
+        loadLimits();
+    }
+}
@@ -0,0 +1,97 @@
+package com.lofigens.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in fixed buckets from 1 microsecond to 10 seconds.
+ *
+ * Recording is a few atomic increments and never allocates, so it is safe to call from the
+ * main thread and worker threads alike. Percentiles are estimated as the upper bound of the
+ * bucket they fall in.
+ */
+public class LatencyHistogram {
+
+    /** Upper bounds of the buckets in nanoseconds, a last bucket catches everything above */
+    private static final long[] BOUNDS = {
+        1_000L, 2_500L, 5_000L, 10_000L, 25_000L, 50_000L, 100_000L, 250_000L, 500_000L,
+        1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L,
+        100_000_000L, 250_000_000L, 500_000_000L, 1_000_000_000L, 2_500_000_000L, 10_000_000_000L
+    };
+
+    private final AtomicLongArray buckets;
+    private final LongAdder count;
+    private final LongAdder sumNanos;
+    private final AtomicLong maxNanos;
+
+    public LatencyHistogram() {
+        this.buckets = new AtomicLongArray(BOUNDS.length + 1);
+        this.count = new LongAdder();
+        this.sumNanos = new LongAdder();
+        this.maxNanos = new AtomicLong();
+    }
+
+    /**
+     * Record one duration
+     */
+    public void record(long nanos) {
+        int bucket = 0;
+        while (bucket < BOUNDS.length && nanos > BOUNDS[bucket]) {
+            bucket++;
+        }
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        sumNanos.add(nanos);
+
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * Estimate a percentile
+     *
+     * @param percentile between 0 and 100
+     * @return the upper bound of the bucket holding the percentile in nanoseconds, or 0 if empty
+     */
+    public long getPercentile(double percentile) {
+        long total = count.sum();
+        if (total == 0) return 0;
+
+        long rank = (long) Math.ceil(percentile / 100 * total);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS.length; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(BOUNDS[i], maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    /**
+     * Forget every recorded duration
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sumNanos.reset();
+        maxNanos.set(0);
+    }
+
+    public static int getBucketCount() { return BOUNDS.length + 1; }
+    public static long getBucketBound(int bucket) { return bucket < BOUNDS.length ? BOUNDS[bucket] : Long.MAX_VALUE; }
+    public long getBucket(int bucket) { return buckets.get(bucket); }
+    public long getCount() { return count.sum(); }
+    public long getSumNanos() { return sumNanos.sum(); }
+    public long getMaxNanos() { return maxNanos.get(); }
+
+    public double getMeanNanos() {
+        long total = count.sum();
+        return total == 0 ? 0 : (double) sumNanos.sum() / total;
+    }
+}
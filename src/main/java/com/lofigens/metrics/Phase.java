@@ -0,0 +1,35 @@
+package com.lofigens.metrics;
+
+import java.util.Locale;
+
+/**
+ * The measured phases of the plugin's work.
+ */
+public enum Phase {
+
+    SCHEDULER_SCAN("Scheduler scan"),           // Taking due generators off the scheduler
+    GENERATION_COMPUTE("Generation compute"),   // Computing one generation, on the worker threads
+    GENERATION_APPLY("Generation apply"),       // Applying the computed generations of a tick
+    ITEM_DELIVERY("Item delivery"),             // Handing out the items generated in a tick
+    EFFECTS("Effects"),                         // Sending the sounds and particles of a tick
+    HOLOGRAM_VIEWERS("Hologram viewers"),       // Showing and hiding holograms as players move
+    HOLOGRAM_UPDATE("Hologram update"),         // Refreshing the text of watched holograms
+    EVENT_CLEANUP("Event cleanup"),             // Ending expired events
+    JACKPOT("Jackpot draw"),
+    GENERATOR_SAVE("Generator save"),           // Encoding dirty regions on the main thread
+    PLAYER_SAVE("Player save"),                 // Snapshotting changed players on the main thread
+    STORAGE_WRITE("Storage write");             // Writing a file, on the writer threads
+
+    private final String displayName;
+    private final String label;
+
+    Phase(String displayName) {
+        this.displayName = displayName;
+        this.label = name().toLowerCase(Locale.ROOT);
+    }
+
+    public String getDisplayName() { return displayName; }
+
+    /** Name used in exported metrics, e.g. scheduler_scan */
+    public String getLabel() { return label; }
+}
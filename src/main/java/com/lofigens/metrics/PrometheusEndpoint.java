@@ -0,0 +1,141 @@
+package com.lofigens.metrics;
+
+import com.lofigens.managers.MetricsManager;
+import com.lofigens.models.GeneratorType;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the metrics in the Prometheus text format on /metrics.
+ *
+ * The server runs on its own daemon thread and only reads the thread-safe values of the
+ * metrics manager, so a scrape never waits for the main thread.
+ */
+public class PrometheusEndpoint {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MetricsManager metrics;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public PrometheusEndpoint(MetricsManager metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Start serving
+     *
+     * @throws IOException if the address can't be bound
+     */
+    public void start(String bind, int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(bind, port), 0);
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "LofiGens-Metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", this::handle);
+        server.start();
+    }
+
+    /**
+     * Stop serving, waiting at most a second for a running scrape
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop(1);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Write every metric in the text exposition format
+     */
+    public String render() {
+        StringBuilder out = new StringBuilder(8192);
+
+        header(out, "lofigens_phase_duration_seconds", "histogram", "Time spent per run of each phase");
+        for (Phase phase : Phase.values()) {
+            histogram(out, "lofigens_phase_duration_seconds", "phase", phase.getLabel(), metrics.getPhase(phase));
+        }
+
+        header(out, "lofigens_generation_compute_seconds", "histogram", "Time spent computing one generation, by generator type");
+        for (GeneratorType type : GeneratorType.values()) {
+            histogram(out, "lofigens_generation_compute_seconds", "type", type.name(), metrics.getCompute(type));
+        }
+
+        header(out, "lofigens_generations_total", "counter", "Generations applied, by generator type");
+        for (GeneratorType type : GeneratorType.values()) {
+            out.append("lofigens_generations_total{type=\"").append(type.name()).append("\"} ")
+                .append(metrics.getGenerations(type)).append('\n');
+        }
+
+        gauge(out, "lofigens_generators_active", "Placed generators in loaded regions", metrics.getActiveGenerators());
+        gauge(out, "lofigens_generators_scheduled", "Generators on the scheduler", metrics.getScheduledGenerators());
+        gauge(out, "lofigens_generators_parked", "Generators waiting for their owner to join", metrics.getParkedGenerators());
+        gauge(out, "lofigens_generators_deferred", "Generators carried over to the next tick", metrics.getDeferredGenerators());
+        gauge(out, "lofigens_holograms_watched", "Holograms with at least one viewer", metrics.getWatchedHolograms());
+        gauge(out, "lofigens_players_loaded", "Players with loaded data", metrics.getLoadedPlayers());
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, long value) {
+        header(out, name, "gauge", help);
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void histogram(StringBuilder out, String name, String label, String value, LatencyHistogram histogram) {
+        String labels = label + "=\"" + value + "\"";
+        long cumulative = 0;
+        for (int i = 0; i < LatencyHistogram.getBucketCount(); i++) {
+            cumulative += histogram.getBucket(i);
+            long bound = LatencyHistogram.getBucketBound(i);
+            String le = bound == Long.MAX_VALUE ? "+Inf" : seconds(bound);
+            out.append(name).append("_bucket{").append(labels).append(",le=\"").append(le).append("\"} ")
+                .append(cumulative).append('\n');
+        }
+        out.append(name).append("_sum{").append(labels).append("} ").append(seconds(histogram.getSumNanos())).append('\n');
+        out.append(name).append("_count{").append(labels).append("} ").append(cumulative).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9).replaceAll("0+$", "").replaceAll("\\.$", ".0");
+    }
+}
@@ -1,109 +1,63 @@
 package com.lofigens.models;
 
+import com.lofigens.scheduler.GeneratorColumns;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.configuration.ConfigurationSection;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * A placed generator: its owner, position and runtime state.
+ * Everything that comes from config.yml lives in the shared GeneratorDefinition.
+ *
+ * While the generator is attached to a {@link GeneratorColumns} store, its fire tick, working
+ * flag and generation counter live in the store's columns and the fields here are unused.
+ */
 public class Generator {
     
-    private String id;                      // Generator configuration ID
+    private GeneratorDefinition definition; // Settings of this generator's type
     private UUID ownerUUID;                 // Player who owns this generator
     private Location location;              // Where the generator is placed
-    private GeneratorType type;             // Type of generator
-    private String name;                    // Display name
-    private Material blockType;             // Block material when working
-    private int spawnInterval;              // Seconds between generations
     private long lastGeneration;            // Last time this generator produced something
     private boolean isWorking;              // Whether the generator is currently working
-    
-    // Type-specific properties
-    private Material itemType;              // For ITEM generators
-    private String command;                 // For COMMAND generators
-    private int expAmount;                  // For EXP generators
-    private double breakChance;             // For UNSTABLE generators
-    private int repairCost;                 // For UNSTABLE generators
-    private Material brokenBlockType;       // For UNSTABLE generators when broken
-    private List<Material> overlockedItems; // For OVERCLOCKED generators
-    private int maxGenerations;             // For OVERCLOCKED generators
+    private long nextFireTick = -1;         // Scheduler tick of the next generation, -1 when unscheduled
+    private int schedulerSlot = -1;         // Position in the scheduler, -1 when not in it
+    private long suspendedSince;            // When the generator's chunk unloaded, 0 while ticking
+    private boolean parked;                 // Off the scheduler until the owner joins again
     private int currentGenerations;         // For OVERCLOCKED generators current count
-    private int minJackpotAmount;           // For JACKPOT generators
-    private int maxJackpotAmount;           // For JACKPOT generators
+    private long[] storedItems;             // Collector amount per output material, allocated on first use
+    private GeneratorColumns columns;       // Store holding the hot fields, null while they live here
+    private int columnRow = -1;             // Row in the columns store
     
-    public Generator(String id, UUID ownerUUID, Location location, ConfigurationSection config) {
-        this.id = id;
+    public Generator(GeneratorDefinition definition, UUID ownerUUID, Location location) {
+        this.definition = definition;
         this.ownerUUID = ownerUUID;
         this.location = location;
         this.isWorking = true;
         this.lastGeneration = System.currentTimeMillis();
         this.currentGenerations = 0;
-        
-        loadFromConfig(config);
     }
     
-    private void loadFromConfig(ConfigurationSection config) {
-        this.name = config.getString("name", "Unknown Generator");
-        this.type = GeneratorType.valueOf(config.getString("type", "ITEM"));
-        this.spawnInterval = config.getInt("spawn_interval", 5);
-        
-        String blockTypeName = config.getString("block_type", "STONE");
-        try {
-            this.blockType = Material.valueOf(blockTypeName);
-        } catch (IllegalArgumentException e) {
-            this.blockType = Material.STONE;
-        }
-        
-        // Load type-specific properties
-        switch (type) {
-            case ITEM:
-            case UNSTABLE:
-                String itemName = config.getString("item", "STONE");
-                try {
-                    this.itemType = Material.valueOf(itemName);
-                } catch (IllegalArgumentException e) {
-                    this.itemType = Material.STONE;
-                }
-                
-                if (type == GeneratorType.UNSTABLE) {
-                    this.breakChance = config.getDouble("break_chance", 0.1);
-                    this.repairCost = config.getInt("repair_cost", 5);
-                    String brokenBlockName = config.getString("block_type_broken", "COBBLESTONE");
-                    try {
-                        this.brokenBlockType = Material.valueOf(brokenBlockName);
-                    } catch (IllegalArgumentException e) {
-                        this.brokenBlockType = Material.COBBLESTONE;
-                    }
+    /**
+     * Switch to a reloaded definition, moving stored items to the new output slots
+     */
+    public void setDefinition(GeneratorDefinition newDefinition) {
+        if (storedItems != null && !Arrays.equals(definition.getOutputMaterials(), newDefinition.getOutputMaterials())) {
+            Material[] oldMaterials = definition.getOutputMaterials();
+            long[] oldStored = storedItems;
+            storedItems = new long[newDefinition.getOutputMaterials().length];
+            for (int i = 0; i < oldMaterials.length; i++) {
+                int slot = newDefinition.getOutputSlot(oldMaterials[i]);
+                if (slot >= 0) {
+                    storedItems[slot] = oldStored[i];
                 }
-                break;
-                
-            case COMMAND:
-                this.command = config.getString("command", "say Hello!");
-                break;
-                
-            case EXP:
-                this.expAmount = config.getInt("amount_of_EXP", 10);
-                break;
-                
-            case OVERCLOCKED:
-                this.maxGenerations = config.getInt("amount", 200);
-                List<String> itemNames = config.getStringList("items");
-                this.overlockedItems = itemNames.stream()
-                    .map(name -> {
-                        try {
-                            return Material.valueOf(name);
-                        } catch (IllegalArgumentException e) {
-                            return Material.STONE;
-                        }
-                    })
-                    .toList();
-                break;
-                
-            case JACKPOT:
-                this.minJackpotAmount = config.getInt("min_generate_amount", 100);
-                this.maxJackpotAmount = config.getInt("max_generate_amount", 1000);
-                break;
+            }
+        }
+        this.definition = newDefinition;
+        if (columns != null) {
+            columns.setDefinition(columnRow, newDefinition);
         }
     }
     
@@ -111,55 +65,99 @@ public class Generator {
      * Check if this generator is ready to generate something
      */
     public boolean isReadyToGenerate() {
-        if (!isWorking) return false;
+        if (!isWorking()) return false;
         
         long currentTime = System.currentTimeMillis();
         long timeSinceLastGen = (currentTime - lastGeneration) / 1000;
         
-        return timeSinceLastGen >= spawnInterval;
+        return timeSinceLastGen >= definition.getSpawnInterval();
     }
     
     /**
-     * Mark that this generator just generated something
+     * Restore persisted state without touching the block
      */
-    public void markGenerated() {
-        this.lastGeneration = System.currentTimeMillis();
+    public void restoreState(long lastGeneration, int currentGenerations, boolean working) {
+        this.lastGeneration = lastGeneration;
+        setCurrentGenerations(currentGenerations);
+        if (columns != null) {
+            columns.setWorking(columnRow, working);
+        } else {
+            this.isWorking = working;
+        }
+    }
+    
+    /**
+     * Store items in the collector, up to the capacity per material
+     * 
+     * @return the amount that was stored
+     */
+    public long storeItems(Material material, long amount, long capacity) {
+        int slot = getOutputSlot(material);
+        if (slot < 0 || amount <= 0) return 0;
         
-        // For overclocked generators, increment the counter
-        if (type == GeneratorType.OVERCLOCKED) {
-            currentGenerations++;
-            
-            // Check if it should break
-            if (currentGenerations >= maxGenerations) {
-                setWorking(false);
-            }
+        if (storedItems == null) {
+            storedItems = new long[definition.getOutputMaterials().length];
         }
         
-        // For unstable generators, check if it should break
-        if (type == GeneratorType.UNSTABLE && isWorking) {
-            if (Math.random() < breakChance) {
-                setWorking(false);
-            }
+        long stored = Math.min(amount, Math.max(0, capacity - storedItems[slot]));
+        storedItems[slot] += stored;
+        return stored;
+    }
+    
+    /**
+     * Get the stored amount of an output material
+     */
+    public long getStoredAmount(int slot) {
+        return storedItems == null ? 0 : storedItems[slot];
+    }
+    
+    /**
+     * Set the stored amount of an output material
+     */
+    public void setStoredAmount(Material material, long amount) {
+        int slot = getOutputSlot(material);
+        if (slot < 0) return;
+        
+        if (storedItems == null) {
+            storedItems = new long[definition.getOutputMaterials().length];
         }
+        storedItems[slot] = Math.max(0, amount);
+    }
+    
+    /**
+     * Get the total amount of stored items
+     */
+    public long getTotalStoredItems() {
+        if (storedItems == null) return 0;
+        
+        long total = 0;
+        for (long amount : storedItems) {
+            total += amount;
+        }
+        return total;
+    }
+    
+    private int getOutputSlot(Material material) {
+        return definition.getOutputSlot(material);
     }
     
     /**
      * Get the next item for overclocked generators
      */
     public Material getNextOverclockedItem() {
-        if (type != GeneratorType.OVERCLOCKED || overlockedItems.isEmpty()) {
+        List<Material> items = definition.getOverclockedItems();
+        if (items == null || items.isEmpty()) {
             return Material.STONE;
         }
         
-        int index = currentGenerations % overlockedItems.size();
-        return overlockedItems.get(index);
+        return items.get(getCurrentGenerations() % items.size());
     }
     
     /**
      * Repair this generator (for unstable generators)
      */
     public void repair() {
-        if (type == GeneratorType.UNSTABLE) {
+        if (getType() == GeneratorType.UNSTABLE) {
             setWorking(true);
         }
     }
@@ -168,72 +166,140 @@ public class Generator {
      * Reset overclocked generator
      */
     public void resetOverclocked() {
-        if (type == GeneratorType.OVERCLOCKED) {
-            currentGenerations = 0;
+        if (getType() == GeneratorType.OVERCLOCKED) {
+            setCurrentGenerations(0);
             setWorking(true);
         }
     }
     
     // Getters and setters
-    public String getId() { return id; }
+    public GeneratorDefinition getDefinition() { return definition; }
     public UUID getOwnerUUID() { return ownerUUID; }
     public Location getLocation() { return location; }
-    public GeneratorType getType() { return type; }
-    public String getName() { return name; }
-    public Material getBlockType() { return blockType; }
-    public int getSpawnInterval() { return spawnInterval; }
     public long getLastGeneration() { return lastGeneration; }
-    public boolean isWorking() { return isWorking; }
-    
-    public Material getItemType() { return itemType; }
-    public String getCommand() { return command; }
-    public int getExpAmount() { return expAmount; }
-    public double getBreakChance() { return breakChance; }
-    public int getRepairCost() { return repairCost; }
-    public Material getBrokenBlockType() { return brokenBlockType; }
-    public List<Material> getOverlockedItems() { return overlockedItems; }
-    public int getMaxGenerations() { return maxGenerations; }
-    public int getCurrentGenerations() { return currentGenerations; }
-    public int getMinJackpotAmount() { return minJackpotAmount; }
-    public int getMaxJackpotAmount() { return maxJackpotAmount; }
+    public boolean isWorking() { return columns != null ? columns.isWorking(columnRow) : isWorking; }
+    public int getCurrentGenerations() { return columns != null ? columns.getGenerations(columnRow) : currentGenerations; }
+    
+    // Settings of the generator's type
+    public String getId() { return definition.getId(); }
+    public GeneratorType getType() { return definition.getType(); }
+    public String getName() { return definition.getName(); }
+    public Material getBlockType() { return definition.getBlockType(); }
+    public int getSpawnInterval() { return definition.getSpawnInterval(); }
+    public Material getItemType() { return definition.getItemType(); }
+    public String getCommand() { return definition.getCommand(); }
+    public int getExpAmount() { return definition.getExpAmount(); }
+    public double getBreakChance() { return definition.getBreakChance(); }
+    public int getRepairCost() { return definition.getRepairCost(); }
+    public Material getBrokenBlockType() { return definition.getBrokenBlockType(); }
+    public List<Material> getOverlockedItems() { return definition.getOverclockedItems(); }
+    public int getMaxGenerations() { return definition.getMaxGenerations(); }
+    public int getMinJackpotAmount() { return definition.getMinJackpotAmount(); }
+    public int getMaxJackpotAmount() { return definition.getMaxJackpotAmount(); }
+    public boolean isCollectorMode() { return definition.isCollector(); }
+    public Material[] getOutputMaterials() { return definition.getOutputMaterials(); }
     
     public void setWorking(boolean working) {
-        this.isWorking = working;
+        if (columns != null) {
+            columns.setWorking(columnRow, working);
+        } else {
+            this.isWorking = working;
+        }
         
         // Update the block type based on working status
-        if (type == GeneratorType.UNSTABLE) {
-            Material targetBlock = working ? blockType : brokenBlockType;
+        if (getType() == GeneratorType.UNSTABLE) {
+            Material targetBlock = working ? getBlockType() : getBrokenBlockType();
             if (location.getBlock().getType() != targetBlock) {
                 location.getBlock().setType(targetBlock);
             }
         }
     }
     
+    public long getNextFireTick() { return columns != null ? columns.getFireTick(columnRow) : nextFireTick; }
+    
+    public void setNextFireTick(long nextFireTick) {
+        if (columns != null) {
+            columns.setFireTick(columnRow, nextFireTick);
+        } else {
+            this.nextFireTick = nextFireTick;
+        }
+    }
+    
+    public int getSchedulerSlot() { return schedulerSlot; }
+    
+    public void setSchedulerSlot(int schedulerSlot) {
+        this.schedulerSlot = schedulerSlot;
+    }
+    
+    public long getSuspendedSince() { return suspendedSince; }
+    
+    public void setSuspendedSince(long suspendedSince) {
+        this.suspendedSince = suspendedSince;
+    }
+    
+    public boolean isParked() { return parked; }
+    
+    public void setParked(boolean parked) {
+        this.parked = parked;
+    }
+    
+    public void setLastGeneration(long lastGeneration) {
+        this.lastGeneration = lastGeneration;
+    }
+    
     public void setCurrentGenerations(int currentGenerations) {
-        this.currentGenerations = currentGenerations;
+        if (columns != null) {
+            columns.setGenerations(columnRow, currentGenerations);
+        } else {
+            this.currentGenerations = currentGenerations;
+        }
+    }
+    
+    public GeneratorColumns getColumns() { return columns; }
+    public int getColumnRow() { return columnRow; }
+    
+    /**
+     * Hand the hot fields over to a row of a columns store, which has already copied them
+     */
+    public void attachColumns(GeneratorColumns columns, int row) {
+        this.columns = columns;
+        this.columnRow = row;
+    }
+    
+    /**
+     * Take the hot fields back from the columns store
+     */
+    public void detachColumns() {
+        if (columns == null) return;
+        
+        this.nextFireTick = columns.getFireTick(columnRow);
+        this.isWorking = columns.isWorking(columnRow);
+        this.currentGenerations = columns.getGenerations(columnRow);
+        this.columns = null;
+        this.columnRow = -1;
     }
     
     /**
      * Get time until next generation in seconds
      */
     public int getTimeUntilNextGeneration() {
-        if (!isWorking) return -1;
+        if (!isWorking()) return -1;
         
         long currentTime = System.currentTimeMillis();
         long timeSinceLastGen = (currentTime - lastGeneration) / 1000;
         
-        return Math.max(0, spawnInterval - (int) timeSinceLastGen);
+        return Math.max(0, definition.getSpawnInterval() - (int) timeSinceLastGen);
     }
     
     /**
      * Get progress percentage (0.0 to 1.0)
      */
     public double getProgress() {
-        if (!isWorking) return 0.0;
+        if (!isWorking()) return 0.0;
         
         long currentTime = System.currentTimeMillis();
         long timeSinceLastGen = (currentTime - lastGeneration) / 1000;
         
-        return Math.min(1.0, (double) timeSinceLastGen / spawnInterval);
+        return Math.min(1.0, (double) timeSinceLastGen / definition.getSpawnInterval());
     }
 } 
\ No newline at end of file
@@ -0,0 +1,135 @@
+package com.lofigens.models;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable settings of a generator type, parsed once from config.yml.
+ *
+ * Every placed generator of a type shares the same definition, so materials and item
+ * lists are resolved once per type instead of once per placed generator. A reload builds
+ * new definitions and swaps them in, a definition itself never changes.
+ */
+public final class GeneratorDefinition {
+
+    private final String id;                        // Generator configuration ID
+    private final GeneratorType type;               // Type of generator
+    private final String name;                      // Display name
+    private final Material blockType;               // Block material when working
+    private final int spawnInterval;                // Seconds between generations
+    private final boolean collector;                // Whether output is stored instead of delivered
+
+    // Type-specific properties
+    private final Material itemType;                // For ITEM and UNSTABLE generators
+    private final String command;                   // For COMMAND generators
+    private final int expAmount;                    // For EXP generators
+    private final double breakChance;               // For UNSTABLE generators
+    private final int repairCost;                   // For UNSTABLE generators
+    private final Material brokenBlockType;         // For UNSTABLE generators when broken
+    private final List<Material> overclockedItems;  // For OVERCLOCKED generators
+    private final int maxGenerations;               // For OVERCLOCKED generators
+    private final int minJackpotAmount;             // For JACKPOT generators
+    private final int maxJackpotAmount;             // For JACKPOT generators
+    private final Material[] outputMaterials;       // Materials this generator can produce
+
+    /**
+     * Parse a generator type from its configuration section
+     *
+     * @param defaultCollector collector mode for types that don't set it themselves
+     */
+    public GeneratorDefinition(String id, ConfigurationSection config, boolean defaultCollector) {
+        this.id = id;
+        this.name = config.getString("name", "Unknown Generator");
+        this.type = GeneratorType.valueOf(config.getString("type", "ITEM"));
+        this.spawnInterval = config.getInt("spawn_interval", 5);
+        this.blockType = parseMaterial(config.getString("block_type", "STONE"), Material.STONE);
+        this.collector = config.getBoolean("collector", defaultCollector);
+
+        // Type-specific properties
+        this.itemType = type == GeneratorType.ITEM || type == GeneratorType.UNSTABLE
+            ? parseMaterial(config.getString("item", "STONE"), Material.STONE) : null;
+        this.command = type == GeneratorType.COMMAND ? config.getString("command", "say Hello!") : null;
+        this.expAmount = type == GeneratorType.EXP ? config.getInt("amount_of_EXP", 10) : 0;
+
+        if (type == GeneratorType.UNSTABLE) {
+            this.breakChance = config.getDouble("break_chance", 0.1);
+            this.repairCost = config.getInt("repair_cost", 5);
+            this.brokenBlockType = parseMaterial(config.getString("block_type_broken", "COBBLESTONE"), Material.COBBLESTONE);
+        } else {
+            this.breakChance = 0;
+            this.repairCost = 0;
+            this.brokenBlockType = null;
+        }
+
+        if (type == GeneratorType.OVERCLOCKED) {
+            this.maxGenerations = config.getInt("amount", 200);
+            List<Material> items = new ArrayList<>();
+            for (String itemName : config.getStringList("items")) {
+                items.add(parseMaterial(itemName, Material.STONE));
+            }
+            this.overclockedItems = List.copyOf(items);
+        } else {
+            this.maxGenerations = 0;
+            this.overclockedItems = null;
+        }
+
+        if (type == GeneratorType.JACKPOT) {
+            this.minJackpotAmount = config.getInt("min_generate_amount", 100);
+            this.maxJackpotAmount = config.getInt("max_generate_amount", 1000);
+        } else {
+            this.minJackpotAmount = 0;
+            this.maxJackpotAmount = 0;
+        }
+
+        // Materials that can end up in collector storage
+        if (type == GeneratorType.OVERCLOCKED) {
+            this.outputMaterials = overclockedItems.stream().distinct().toArray(Material[]::new);
+        } else if (itemType != null) {
+            this.outputMaterials = new Material[] { itemType };
+        } else {
+            this.outputMaterials = new Material[0];
+        }
+    }
+
+    private static Material parseMaterial(String name, Material fallback) {
+        try {
+            return Material.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * Get the collector storage slot of a material, or -1 if this type can't produce it
+     */
+    public int getOutputSlot(Material material) {
+        for (int i = 0; i < outputMaterials.length; i++) {
+            if (outputMaterials[i] == material) return i;
+        }
+        return -1;
+    }
+
+    // Getters
+    public String getId() { return id; }
+    public GeneratorType getType() { return type; }
+    public String getName() { return name; }
+    public Material getBlockType() { return blockType; }
+    public int getSpawnInterval() { return spawnInterval; }
+    public boolean isCollector() { return collector; }
+    public Material getItemType() { return itemType; }
+    public String getCommand() { return command; }
+    public int getExpAmount() { return expAmount; }
+    public double getBreakChance() { return breakChance; }
+    public int getRepairCost() { return repairCost; }
+    public Material getBrokenBlockType() { return brokenBlockType; }
+    public List<Material> getOverclockedItems() { return overclockedItems; }
+    public int getMaxGenerations() { return maxGenerations; }
+    public int getMinJackpotAmount() { return minJackpotAmount; }
+    public int getMaxJackpotAmount() { return maxJackpotAmount; }
+
+    /** The shared array, callers must not modify it */
+    public Material[] getOutputMaterials() { return outputMaterials; }
+}
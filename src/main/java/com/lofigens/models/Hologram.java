@@ -0,0 +1,172 @@
+package com.lofigens.models;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A generator hologram that only exists for the players near it.
+ *
+ * Lines are kept as text while nobody is watching. The first viewer spawns a single hidden,
+ * non-persistent text display, which is then shown to each viewer individually and removed
+ * again when the last viewer leaves. The display is only updated when its text changed.
+ */
+public class Hologram {
+
+    private final Plugin plugin;
+    private final Location generatorLocation;
+    private final Location location;    // Position of the bottom line
+    private final Set<UUID> viewers;
+    private String[] lines;
+    private TextDisplay display;        // Null while nobody is watching
+    
+    // Values the current lines were rendered from, see HologramRenderer
+    private boolean renderedWorking;
+    private int renderedCountdown = Integer.MIN_VALUE;
+    private int renderedRemaining;
+    private long renderedStored;
+
+    public Hologram(Plugin plugin, Location generatorLocation, Location location) {
+        this.plugin = plugin;
+        this.generatorLocation = generatorLocation;
+        this.location = location;
+        this.viewers = new HashSet<>();
+        this.lines = new String[0];
+    }
+
+    /**
+     * Replace the lines, updating the display only if the text changed
+     *
+     * @return true if any line changed
+     */
+    public boolean setLines(String[] newLines) {
+        if (Arrays.equals(lines, newLines)) {
+            return false;
+        }
+
+        lines = newLines;
+        if (display != null) {
+            display.setText(String.join("\n", lines));
+        }
+        return true;
+    }
+
+    /**
+     * Remember the values the next lines are rendered from
+     *
+     * @return true if any of them differs from the last rendered values
+     */
+    public boolean updateRenderState(boolean working, int countdown, int remaining, long stored) {
+        if (renderedWorking == working && renderedCountdown == countdown
+                && renderedRemaining == remaining && renderedStored == stored) {
+            return false;
+        }
+
+        renderedWorking = working;
+        renderedCountdown = countdown;
+        renderedRemaining = remaining;
+        renderedStored = stored;
+        return true;
+    }
+
+    /**
+     * Forget the rendered values so the next render rebuilds every line
+     */
+    public void invalidate() {
+        renderedCountdown = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Show the hologram to a player, spawning its display for the first viewer
+     */
+    public void addViewer(Player player) {
+        if (!viewers.add(player.getUniqueId())) return;
+
+        if (display == null || !display.isValid()) {
+            respawn(); // Also shows the new display to this viewer
+            return;
+        }
+        player.showEntity(plugin, display);
+    }
+
+    /**
+     * Hide the hologram from a player, removing its display once nobody is watching
+     *
+     * @param player the player, or null if they already left
+     */
+    public void removeViewer(UUID playerUUID, Player player) {
+        if (!viewers.remove(playerUUID)) return;
+
+        if (viewers.isEmpty()) {
+            despawn();
+        } else if (player != null && display != null) {
+            player.hideEntity(plugin, display);
+        }
+    }
+
+    /**
+     * Replace the display and show the new one to every viewer
+     */
+    private void respawn() {
+        despawn();
+        spawn();
+        for (UUID viewer : viewers) {
+            Player player = Bukkit.getPlayer(viewer);
+            if (player != null) {
+                player.showEntity(plugin, display);
+            }
+        }
+    }
+
+    /**
+     * Spawn a hidden text display holding every line, the text grows upwards from the location
+     */
+    private void spawn() {
+        String text = String.join("\n", lines);
+        display = location.getWorld().spawn(location, TextDisplay.class, textDisplay -> {
+            textDisplay.setVisibleByDefault(false); // Only shown to tracked viewers
+            textDisplay.setBillboard(Display.Billboard.CENTER);
+            textDisplay.setAlignment(TextDisplay.TextAlignment.CENTER);
+            textDisplay.setGravity(false);
+            textDisplay.setInvulnerable(true);
+            textDisplay.setPersistent(false); // Recreated on demand, don't save it with the chunk
+            textDisplay.setText(text);
+        });
+    }
+
+    /**
+     * Remove the display, viewers are kept
+     */
+    public void despawn() {
+        if (display == null) return;
+
+        if (!display.isDead()) {
+            display.remove();
+        }
+        display = null;
+    }
+
+    /**
+     * Remove the display and forget every viewer
+     */
+    public void remove() {
+        despawn();
+        viewers.clear();
+    }
+
+    public Location getGeneratorLocation() { return generatorLocation; }
+    public Location getLocation() { return location; }
+    public String[] getLines() { return lines; }
+    public Set<UUID> getViewers() { return viewers; }
+    public boolean isSpawned() { return display != null; }
+    public boolean isRendered() { return renderedCountdown != Integer.MIN_VALUE; }
+    public boolean isRenderedWorking() { return renderedWorking; }
+}
@@ -0,0 +1,281 @@
+package com.lofigens.models;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Fixed-size ranking of the best players for one stat.
+ *
+ * Entries are kept sorted by value (highest first) and know their own rank, and a map finds
+ * a player's entry without scanning the board. Values that don't make the board are rejected
+ * with one comparison, qualifying values find their rank with a binary search and shift the
+ * entries between the old and the new rank. Raising a player who is already on the board
+ * allocates nothing.
+ *
+ * The board itself is only touched on the main thread. Readers, which may be on any thread,
+ * see an immutable view that the main thread publishes after changes. Values are formatted
+ * the first time a rank is read from a view.
+ */
+public class Leaderboard {
+
+    private Entry[] entries;
+    private final Map<UUID, Entry> byPlayer;
+    private int size;
+    private boolean stale;
+    private volatile View view;
+
+    public Leaderboard(int capacity) {
+        this.byPlayer = new HashMap<>();
+        this.view = View.EMPTY;
+        resize(capacity);
+    }
+
+    /**
+     * Raise a player's value. Values passed here never decrease for the same player.
+     *
+     * @return true if the board changed
+     */
+    public boolean increase(UUID playerUUID, String playerName, long value) {
+        // A player below the last entry can't be on the board with a higher value
+        if (size == entries.length && value <= entries[size - 1].value) {
+            return false;
+        }
+
+        Entry entry = byPlayer.get(playerUUID);
+        if (entry != null) {
+            if (entry.value == value) return false;
+            entry.playerName = playerName;
+            entry.value = value;
+            moveTo(entry, findRank(value, entry.rank));
+            stale = true;
+            return true;
+        }
+
+        insert(playerUUID, playerName, value);
+        return true;
+    }
+
+    /**
+     * Set a player's value, which may also lower it or drop them from the board
+     *
+     * @return true if the board changed
+     */
+    public boolean set(UUID playerUUID, String playerName, long value) {
+        Entry entry = byPlayer.get(playerUUID);
+        if (entry != null) {
+            if (entry.value == value && entry.playerName.equals(playerName)) return false;
+            removeAt(entry.rank);
+        } else if (value <= 0 || (size == entries.length && value <= entries[size - 1].value)) {
+            return false;
+        }
+
+        if (value > 0) {
+            insert(playerUUID, playerName, value);
+        }
+        stale = true;
+        return true;
+    }
+
+    /**
+     * Remove a player from the board
+     *
+     * @return true if the player was on the board
+     */
+    public boolean remove(UUID playerUUID) {
+        Entry entry = byPlayer.get(playerUUID);
+        if (entry == null) return false;
+        removeAt(entry.rank);
+        stale = true;
+        return true;
+    }
+
+    /**
+     * Remove every entry
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            entries[i] = null;
+        }
+        byPlayer.clear();
+        size = 0;
+        stale = true;
+    }
+
+    /**
+     * Change the number of ranks, dropping the lowest entries if it shrinks
+     */
+    public void resize(int capacity) {
+        capacity = Math.max(1, capacity);
+        Entry[] resized = new Entry[capacity];
+
+        int kept = Math.min(size, capacity);
+        if (kept > 0) {
+            System.arraycopy(entries, 0, resized, 0, kept);
+        }
+        for (int i = kept; i < size; i++) {
+            byPlayer.remove(entries[i].playerUUID);
+        }
+
+        this.entries = resized;
+        this.size = kept;
+        this.stale = true;
+    }
+
+    /**
+     * Publish the current ranking to readers if it changed since the last call (main thread)
+     */
+    public void publish() {
+        if (!stale) return;
+        stale = false;
+
+        String[] names = new String[size];
+        long[] values = new long[size];
+        UUID[] players = new UUID[size];
+        for (int i = 0; i < size; i++) {
+            players[i] = entries[i].playerUUID;
+            names[i] = entries[i].playerName;
+            values[i] = entries[i].value;
+        }
+        view = new View(players, names, values);
+    }
+
+    private void insert(UUID playerUUID, String playerName, long value) {
+        int rank = findRank(value, size);
+        if (rank >= entries.length) return;
+
+        // A full board drops its last entry, which is reused for the new player
+        Entry entry;
+        if (size == entries.length) {
+            entry = entries[--size];
+            byPlayer.remove(entry.playerUUID);
+        } else {
+            entry = new Entry();
+        }
+        entry.playerUUID = playerUUID;
+        entry.playerName = playerName;
+        entry.value = value;
+        byPlayer.put(playerUUID, entry);
+
+        // Shift everything below down one rank
+        entry.rank = size++;
+        entries[entry.rank] = entry;
+        moveTo(entry, rank);
+        stale = true;
+    }
+
+    private void removeAt(int index) {
+        Entry removed = entries[index];
+        byPlayer.remove(removed.playerUUID);
+
+        int moved = size - index - 1;
+        System.arraycopy(entries, index + 1, entries, index, moved);
+        size--;
+        entries[size] = null;
+        for (int i = index; i < size; i++) {
+            entries[i].rank = i;
+        }
+    }
+
+    /**
+     * Move an entry up to a higher rank, shifting the entries in between down by one
+     */
+    private void moveTo(Entry entry, int rank) {
+        int index = entry.rank;
+        if (rank >= index) return;
+
+        System.arraycopy(entries, rank, entries, rank + 1, index - rank);
+        entries[rank] = entry;
+        for (int i = rank; i <= index; i++) {
+            entries[i].rank = i;
+        }
+    }
+
+    /**
+     * Binary search for the first rank in [0, end) with a lower value, equal values keep their order
+     */
+    private int findRank(long value, int end) {
+        int low = 0;
+        int high = end;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries[mid].value >= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Copy the top entries from the published view
+     */
+    public List<LeaderboardEntry> toEntries(int limit) {
+        View current = view;
+        int count = Math.min(limit, current.values.length);
+        List<LeaderboardEntry> copy = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            copy.add(new LeaderboardEntry(current.players[i], current.names[i], current.values[i]));
+        }
+        return copy;
+    }
+
+    // Rank lookups on the published view, ranks start at 0 and return null/0 past the end of the board
+    public String getPlayerName(int rank) { return view.getPlayerName(rank); }
+    public String getFormattedValue(int rank) { return view.getFormattedValue(rank); }
+    public long getValue(int rank) { return view.getValue(rank); }
+    public int size() { return size; }
+    public int capacity() { return entries.length; }
+
+    /**
+     * A ranked player, which remembers its own rank
+     */
+    private static final class Entry {
+        private UUID playerUUID;
+        private String playerName;
+        private long value;
+        private int rank;
+    }
+
+    /**
+     * Immutable copy of the ranking that is safe to read from any thread
+     */
+    private static final class View {
+
+        private static final View EMPTY = new View(new UUID[0], new String[0], new long[0]);
+
+        private final UUID[] players;
+        private final String[] names;
+        private final long[] values;
+        private final String[] formatted;   // Filled on first read, racing readers format the same text
+
+        private View(UUID[] players, String[] names, long[] values) {
+            this.players = players;
+            this.names = names;
+            this.values = values;
+            this.formatted = new String[values.length];
+        }
+
+        private String getPlayerName(int rank) {
+            return rank >= 0 && rank < names.length ? names[rank] : null;
+        }
+
+        private String getFormattedValue(int rank) {
+            if (rank < 0 || rank >= values.length) return null;
+
+            String text = formatted[rank];
+            if (text == null) {
+                text = String.valueOf(values[rank]);
+                formatted[rank] = text;
+            }
+            return text;
+        }
+
+        private long getValue(int rank) {
+            return rank >= 0 && rank < values.length ? values[rank] : 0;
+        }
+    }
+}
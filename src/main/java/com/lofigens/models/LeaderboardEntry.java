@@ -0,0 +1,9 @@
+package com.lofigens.models;
+
+import java.util.UUID;
+
+/**
+ * A ranked player on a leaderboard
+ */
+public record LeaderboardEntry(UUID playerUUID, String playerName, long value) {
+}
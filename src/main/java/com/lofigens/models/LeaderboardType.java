@@ -0,0 +1,23 @@
+package com.lofigens.models;
+
+import com.lofigens.storage.PlayerSnapshot;
+
+public enum LeaderboardType {
+    ITEMS,          // Total items generated
+    EXP,            // Total exp generated
+    JACKPOT;        // Jackpot contributions
+    
+    /**
+     * Get the ranked value of a player
+     */
+    public long getValue(PlayerSnapshot snapshot) {
+        switch (this) {
+            case ITEMS:
+                return snapshot.totalItemsGenerated();
+            case EXP:
+                return snapshot.totalExpGenerated();
+            default:
+                return snapshot.jackpotContributions();
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.lofigens.models;
 
+import com.lofigens.storage.PlayerSnapshot;
+
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -12,9 +15,12 @@ public class PlayerData {
     private int maxGeneratorSlots;
     private boolean hologramsEnabled;
     private Map<String, Integer> generatorCounts;
+    private int placedGenerators;      // Sum of generatorCounts, kept in step with it
     private long totalItemsGenerated;
     private long totalExpGenerated;
     private int jackpotContributions;
+    private boolean dirty;             // Changed since the last snapshot was taken
+    private StatListener statListener; // Notified when a ranked stat grows
     
     public PlayerData(UUID playerUUID, String playerName, int defaultSlots, int maxSlots) {
         this.playerUUID = playerUUID;
@@ -32,34 +38,55 @@ public class PlayerData {
      * Check if player can place more generators
      */
     public boolean canPlaceGenerator() {
-        int totalGenerators = generatorCounts.values().stream().mapToInt(Integer::intValue).sum();
-        return totalGenerators < generatorSlots;
+        return placedGenerators < generatorSlots;
     }
     
     /**
      * Get current number of placed generators
      */
     public int getPlacedGenerators() {
-        return generatorCounts.values().stream().mapToInt(Integer::intValue).sum();
+        return placedGenerators;
     }
     
     /**
      * Add a generator to the count
      */
     public void addGenerator(String generatorId) {
+        this.dirty = true;
         generatorCounts.put(generatorId, generatorCounts.getOrDefault(generatorId, 0) + 1);
+        placedGenerators++;
     }
     
     /**
      * Remove a generator from the count
      */
     public void removeGenerator(String generatorId) {
+        this.dirty = true;
         int current = generatorCounts.getOrDefault(generatorId, 0);
         if (current > 1) {
             generatorCounts.put(generatorId, current - 1);
         } else {
             generatorCounts.remove(generatorId);
         }
+        if (current > 0) {
+            placedGenerators--;
+        }
+    }
+    
+    /**
+     * Correct the count of a specific generator type
+     */
+    public void setGeneratorCount(String generatorId, int count) {
+        int current = generatorCounts.getOrDefault(generatorId, 0);
+        if (count == current) return;
+        
+        this.dirty = true;
+        if (count > 0) {
+            generatorCounts.put(generatorId, count);
+        } else {
+            generatorCounts.remove(generatorId);
+        }
+        placedGenerators += Math.max(0, count) - current;
     }
     
     /**
@@ -73,6 +100,7 @@ public class PlayerData {
      * Add generator slots to player
      */
     public void addSlots(int amount) {
+        this.dirty = true;
         this.generatorSlots = Math.min(maxGeneratorSlots, this.generatorSlots + amount);
     }
     
@@ -80,6 +108,7 @@ public class PlayerData {
      * Remove generator slots from player
      */
     public void removeSlots(int amount) {
+        this.dirty = true;
         this.generatorSlots = Math.max(0, this.generatorSlots - amount);
     }
     
@@ -87,21 +116,36 @@ public class PlayerData {
      * Add to total items generated
      */
     public void addItemsGenerated(int amount) {
+        this.dirty = true;
         this.totalItemsGenerated += amount;
+        if (statListener != null) statListener.onStatIncreased(this, LeaderboardType.ITEMS, totalItemsGenerated);
     }
     
     /**
      * Add to total exp generated
      */
     public void addExpGenerated(int amount) {
+        this.dirty = true;
         this.totalExpGenerated += amount;
+        if (statListener != null) statListener.onStatIncreased(this, LeaderboardType.EXP, totalExpGenerated);
     }
     
     /**
      * Increment jackpot contributions
      */
     public void addJackpotContribution() {
+        this.dirty = true;
         this.jackpotContributions++;
+        if (statListener != null) statListener.onStatIncreased(this, LeaderboardType.JACKPOT, jackpotContributions);
+    }
+    
+    /**
+     * Add several jackpot contributions at once
+     */
+    public void addJackpotContributions(int count) {
+        this.dirty = true;
+        this.jackpotContributions += count;
+        if (statListener != null) statListener.onStatIncreased(this, LeaderboardType.JACKPOT, jackpotContributions);
     }
     
     // Getters and setters
@@ -110,29 +154,64 @@ public class PlayerData {
     public int getGeneratorSlots() { return generatorSlots; }
     public int getMaxGeneratorSlots() { return maxGeneratorSlots; }
     public boolean isHologramsEnabled() { return hologramsEnabled; }
-    public Map<String, Integer> getGeneratorCounts() { return generatorCounts; }
+    public Map<String, Integer> getGeneratorCounts() { return Collections.unmodifiableMap(generatorCounts); }
     public long getTotalItemsGenerated() { return totalItemsGenerated; }
     public long getTotalExpGenerated() { return totalExpGenerated; }
     public int getJackpotContributions() { return jackpotContributions; }
     
-    public void setPlayerName(String playerName) { this.playerName = playerName; }
+    public boolean isDirty() { return dirty; }
+    
+    public void setPlayerName(String playerName) { 
+        if (!playerName.equals(this.playerName)) {
+            this.playerName = playerName;
+            this.dirty = true;
+        }
+    }
     public void setGeneratorSlots(int generatorSlots) { 
         this.generatorSlots = Math.min(maxGeneratorSlots, Math.max(0, generatorSlots)); 
+        this.dirty = true;
     }
     public void setMaxGeneratorSlots(int maxGeneratorSlots) { this.maxGeneratorSlots = maxGeneratorSlots; }
-    public void setHologramsEnabled(boolean hologramsEnabled) { this.hologramsEnabled = hologramsEnabled; }
-    public void setGeneratorCounts(Map<String, Integer> generatorCounts) { this.generatorCounts = generatorCounts; }
-    public void setTotalItemsGenerated(long totalItemsGenerated) { this.totalItemsGenerated = totalItemsGenerated; }
-    public void setTotalExpGenerated(long totalExpGenerated) { this.totalExpGenerated = totalExpGenerated; }
-    public void setJackpotContributions(int jackpotContributions) { this.jackpotContributions = jackpotContributions; }
+    public void setHologramsEnabled(boolean hologramsEnabled) { this.hologramsEnabled = hologramsEnabled; this.dirty = true; }
+    public void setGeneratorCounts(Map<String, Integer> generatorCounts) { 
+        this.generatorCounts = generatorCounts; 
+        this.placedGenerators = 0;
+        for (int count : generatorCounts.values()) {
+            placedGenerators += count;
+        }
+        this.dirty = true;
+    }
+    public void setTotalItemsGenerated(long totalItemsGenerated) { this.totalItemsGenerated = totalItemsGenerated; this.dirty = true; }
+    public void setTotalExpGenerated(long totalExpGenerated) { this.totalExpGenerated = totalExpGenerated; this.dirty = true; }
+    public void setJackpotContributions(int jackpotContributions) { this.jackpotContributions = jackpotContributions; this.dirty = true; }
+    public void setDirty(boolean dirty) { this.dirty = dirty; }
+    public void setStatListener(StatListener statListener) { this.statListener = statListener; }
+    
+    /**
+     * Take an immutable copy of the persisted fields and clear the dirty flag
+     */
+    public PlayerSnapshot snapshot() {
+        this.dirty = false;
+        return new PlayerSnapshot(playerUUID, playerName, generatorSlots, hologramsEnabled,
+            totalItemsGenerated, totalExpGenerated, jackpotContributions, Map.copyOf(generatorCounts));
+    }
     
     /**
      * Reset all generator data
      */
     public void reset() {
+        this.dirty = true;
         this.generatorCounts.clear();
+        this.placedGenerators = 0;
         this.totalItemsGenerated = 0;
         this.totalExpGenerated = 0;
         this.jackpotContributions = 0;
     }
+    
+    /**
+     * Receives the new value of a ranked stat after it increased
+     */
+    public interface StatListener {
+        void onStatIncreased(PlayerData playerData, LeaderboardType type, long value);
+    }
 } 
\ No newline at end of file
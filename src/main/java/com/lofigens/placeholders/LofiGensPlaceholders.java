@@ -1,18 +1,88 @@
 package com.lofigens.placeholders;
 
 import com.lofigens.LofiGens;
+import com.lofigens.models.LeaderboardType;
 import com.lofigens.models.PlayerData;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 
-import java.util.List;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
-public class LofiGensPlaceholders extends PlaceholderExpansion {
+/**
+ * PlaceholderAPI expansion.
+ *
+ * Placeholder keys are resolved once into a handler and kept in a table, so a request is a
+ * single map lookup. Results are cached per player (or globally for jackpot values and
+ * leaderboard ranks) for a configurable time per placeholder family.
+ */
+public class LofiGensPlaceholders extends PlaceholderExpansion implements Listener {
+    
+    /** Keys beyond this many are resolved on every request, so arbitrary input can't grow the table */
+    private static final int MAX_COMPILED = 1024;
     
     private final LofiGens plugin;
+    private final Map<String, Function<Player, String>> handlers;
+    private final Map<String, CompiledPlaceholder> compiled;
+    private final Map<UUID, CachedValue[]> playerCache;
+    private volatile CachedValue[] globalCache;
+    private final long[] familyTtls;
+    private int nextSlot;
     
     public LofiGensPlaceholders(LofiGens plugin) {
         this.plugin = plugin;
+        this.handlers = new ConcurrentHashMap<>();
+        this.compiled = new ConcurrentHashMap<>();
+        this.playerCache = new ConcurrentHashMap<>();
+        this.globalCache = new CachedValue[16];
+        this.familyTtls = new long[Family.values().length];
+        registerHandlers();
+        reload();
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+    }
+    
+    /**
+     * Register the handlers of every fixed placeholder key
+     */
+    private void registerHandlers() {
+        // Individual player placeholders
+        handlers.put("amount", player -> playerStat(player, PlayerData::getPlacedGenerators));
+        handlers.put("amount_max", player -> playerStat(player, PlayerData::getGeneratorSlots));
+        handlers.put("total_items", player -> playerStat(player, PlayerData::getTotalItemsGenerated));
+        handlers.put("total_exp", player -> playerStat(player, PlayerData::getTotalExpGenerated));
+        handlers.put("jackpot_contributions", player -> playerStat(player, PlayerData::getJackpotContributions));
+        
+        // Jackpot placeholders
+        handlers.put("jackpot_amount", player -> String.valueOf(plugin.getJackpotManager().getCurrentJackpotAmount()));
+        handlers.put("jackpot_last_winner", player -> plugin.getJackpotManager().getLastWinner());
+        handlers.put("jackpot_last_amount", player -> String.valueOf(plugin.getJackpotManager().getLastWinAmount()));
+        
+        // Event placeholders
+        handlers.put("event_doubleitem_status", player ->
+            plugin.getEventManager().isDoubleItemsActive(player.getUniqueId()) ? "Active" : "Inactive");
+        handlers.put("event_doubleitem_time", player ->
+            String.valueOf(Math.max(0, plugin.getEventManager().getDoubleItemsRemainingTime(player.getUniqueId()))));
+    }
+    
+    /**
+     * Reload the cache times
+     */
+    public void reload() {
+        for (Family family : Family.values()) {
+            familyTtls[family.ordinal()] = Math.max(0, plugin.getConfigManager().getConfig()
+                .getLong("placeholders.cache-ttl." + family.name().toLowerCase(Locale.ROOT), 1000));
+        }
+        playerCache.clear();
+        globalCache = new CachedValue[globalCache.length];
     }
     
     @Override
@@ -46,81 +116,156 @@ public class LofiGensPlaceholders extends PlaceholderExpansion {
             return "";
         }
         
-        PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(player);
+        CompiledPlaceholder placeholder = compiled.get(params);
+        if (placeholder == null) {
+            placeholder = compile(params);
+        }
+        if (placeholder.handler == null) {
+            return null; // Placeholder not found
+        }
         
-        // Individual player placeholders
-        switch (params.toLowerCase()) {
-            case "amount":
-                return String.valueOf(playerData.getPlacedGenerators());
-                
-            case "amount_max":
-                return String.valueOf(playerData.getGeneratorSlots());
-                
-            case "total_items":
-                return String.valueOf(playerData.getTotalItemsGenerated());
-                
-            case "total_exp":
-                return String.valueOf(playerData.getTotalExpGenerated());
-                
-            case "jackpot_contributions":
-                return String.valueOf(playerData.getJackpotContributions());
+        long ttl = familyTtls[placeholder.family.ordinal()];
+        if (ttl == 0 || placeholder.slot < 0) {
+            return placeholder.handler.apply(player);
         }
         
-        // Jackpot placeholders
-        if (params.startsWith("jackpot_")) {
-            switch (params.toLowerCase()) {
-                case "jackpot_amount":
-                    return String.valueOf(plugin.getJackpotManager().getCurrentJackpotAmount());
-                    
-                case "jackpot_last_winner":
-                    return plugin.getJackpotManager().getLastWinner();
-                    
-                case "jackpot_last_amount":
-                    return String.valueOf(plugin.getJackpotManager().getLastWinAmount());
+        long now = System.currentTimeMillis();
+        CachedValue[] cache = placeholder.family.global ? globalCache : playerCache.get(player.getUniqueId());
+        if (cache != null && placeholder.slot < cache.length) {
+            CachedValue cached = cache[placeholder.slot];
+            if (cached != null && cached.expiresAt > now) {
+                return cached.value;
             }
         }
         
-        // Event placeholders
-        if (params.startsWith("event_")) {
-            switch (params.toLowerCase()) {
-                case "event_doubleitem_status":
-                    return plugin.getEventManager().isDoubleItemsActive(player.getUniqueId()) ? "Active" : "Inactive";
-                    
-                case "event_doubleitem_time":
-                    int remaining = plugin.getEventManager().getDoubleItemsRemainingTime(player.getUniqueId());
-                    return remaining > 0 ? String.valueOf(remaining) : "0";
+        String value = placeholder.handler.apply(player);
+        store(player, placeholder, new CachedValue(value, now + ttl));
+        return value;
+    }
+    
+    /**
+     * Resolve a placeholder key into its handler
+     */
+    private synchronized CompiledPlaceholder compile(String params) {
+        CompiledPlaceholder existing = compiled.get(params);
+        if (existing != null) {
+            return existing;
+        }
+        
+        String key = params.toLowerCase(Locale.ROOT);
+        Function<Player, String> handler = handlers.get(key);
+        Family family = Family.PLAYER;
+        
+        if (handler != null) {
+            if (key.startsWith("jackpot_") && !key.equals("jackpot_contributions")) {
+                family = Family.JACKPOT;
+            } else if (key.startsWith("event_")) {
+                family = Family.EVENT;
             }
+        } else if (key.startsWith("top_player_")) {
+            handler = compileTopHandler(key.substring(11), true);
+            family = Family.TOP;
+        } else if (key.startsWith("top_amount_")) {
+            handler = compileTopHandler(key.substring(11), false);
+            family = Family.TOP;
         }
         
-        // Top player placeholders
-        if (params.startsWith("top_player_")) {
-            try {
-                int position = Integer.parseInt(params.substring(11)); // Remove "top_player_"
-                List<PlayerData> topPlayers = plugin.getPlayerDataManager().getTopPlayersByItems(10);
-                
-                if (position > 0 && position <= topPlayers.size()) {
-                    return topPlayers.get(position - 1).getPlayerName();
-                }
-            } catch (NumberFormatException e) {
-                // Invalid number
+        if (compiled.size() >= MAX_COMPILED) {
+            return new CompiledPlaceholder(handler, family, -1);
+        }
+        
+        CompiledPlaceholder placeholder = new CompiledPlaceholder(handler, family, handler == null ? -1 : nextSlot++);
+        compiled.put(params, placeholder);
+        return placeholder;
+    }
+    
+    /**
+     * Build the handler of a top_player_N or top_amount_N placeholder
+     */
+    private Function<Player, String> compileTopHandler(String position, boolean name) {
+        String fallback = name ? "N/A" : "0";
+        int rank;
+        try {
+            rank = Integer.parseInt(position) - 1;
+        } catch (NumberFormatException e) {
+            return player -> fallback; // Invalid number
+        }
+        
+        return player -> {
+            String value = name
+                ? plugin.getLeaderboardManager().getPlayerName(LeaderboardType.ITEMS, rank)
+                : plugin.getLeaderboardManager().getFormattedValue(LeaderboardType.ITEMS, rank);
+            return value != null ? value : fallback;
+        };
+    }
+    
+    /**
+     * Put a value in the player's or the global cache, growing it for newly compiled keys.
+     * Every top_player_N and top_amount_N key has its own slot, so ranks are cached by position.
+     */
+    private void store(Player player, CompiledPlaceholder placeholder, CachedValue value) {
+        int slot = placeholder.slot;
+        if (placeholder.family.global) {
+            CachedValue[] cache = globalCache;
+            if (slot >= cache.length) {
+                cache = Arrays.copyOf(cache, Math.max(slot + 1, cache.length * 2));
+                globalCache = cache;
             }
-            return "N/A";
+            cache[slot] = value;
+            return;
         }
         
-        if (params.startsWith("top_amount_")) {
-            try {
-                int position = Integer.parseInt(params.substring(11)); // Remove "top_amount_"
-                List<PlayerData> topPlayers = plugin.getPlayerDataManager().getTopPlayersByItems(10);
-                
-                if (position > 0 && position <= topPlayers.size()) {
-                    return String.valueOf(topPlayers.get(position - 1).getTotalItemsGenerated());
-                }
-            } catch (NumberFormatException e) {
-                // Invalid number
+        CachedValue[] cache = playerCache.get(player.getUniqueId());
+        if (cache == null || slot >= cache.length) {
+            CachedValue[] grown = new CachedValue[Math.max(16, Math.max(slot + 1, cache == null ? 0 : cache.length * 2))];
+            if (cache != null) {
+                System.arraycopy(cache, 0, grown, 0, cache.length);
             }
-            return "0";
+            cache = grown;
+            playerCache.put(player.getUniqueId(), cache);
         }
+        cache[slot] = value;
+    }
+    
+    /**
+     * Format a stat of a player, 0 while their data is still being read.
+     * Reads the data without touching it (getPlayerData(Player) also updates the name).
+     */
+    private String playerStat(Player player, ToLongFunction<PlayerData> stat) {
+        PlayerData playerData = plugin.getPlayerDataManager().getPlayerData(player.getUniqueId());
+        return playerData == null ? "0" : String.valueOf(stat.applyAsLong(playerData));
+    }
+    
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        playerCache.remove(event.getPlayer().getUniqueId());
+    }
+    
+    /**
+     * Placeholder families, each with its own cache time
+     */
+    private enum Family {
+        PLAYER(false),      // Player stats, cached per player
+        EVENT(false),       // Event status, cached per player
+        TOP(true),          // Leaderboard ranks, cached once for everyone
+        JACKPOT(true);      // Jackpot values, cached once for everyone
+        
+        private final boolean global;
         
-        return null; // Placeholder not found
+        Family(boolean global) {
+            this.global = global;
+        }
+    }
+    
+    /**
+     * A resolved placeholder key, slot is its index in the caches
+     */
+    private record CompiledPlaceholder(Function<Player, String> handler, Family family, int slot) {
+    }
+    
+    /**
+     * A cached result and when it stops being valid
+     */
+    private record CachedValue(String value, long expiresAt) {
     }
-} 
\ No newline at end of file
+}
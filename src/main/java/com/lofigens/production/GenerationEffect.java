@@ -0,0 +1,62 @@
+package com.lofigens.production;
+
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A change to the world, an inventory or the jackpot that a generation asks for.
+ * Effects are computed anywhere and only applied on the main thread.
+ */
+public sealed interface GenerationEffect {
+    
+    /** Items for the owner, or for the collector in collector mode */
+    record DeliverItems(Material material, long amount) implements GenerationEffect {
+    }
+    
+    /** An experience orb above the generator */
+    record SpawnOrb(int experience) implements GenerationEffect {
+    }
+    
+    /** The generator's console command, run a number of times */
+    record DispatchCommand(int runs) implements GenerationEffect {
+    }
+    
+    /** Money added to the jackpot */
+    record ContributeJackpot(long amount, int contributions) implements GenerationEffect {
+    }
+    
+    /** The generator broke, which also swaps its block */
+    record BreakGenerator() implements GenerationEffect {
+    }
+    
+    /**
+     * Turn a production result into the effects that apply it
+     */
+    static List<GenerationEffect> of(ProductionResult result) {
+        if (result.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        List<GenerationEffect> effects = new ArrayList<>(2);
+        for (Map.Entry<Material, Long> entry : result.getItems().entrySet()) {
+            effects.add(new DeliverItems(entry.getKey(), entry.getValue()));
+        }
+        if (result.getExp() > 0) {
+            effects.add(new SpawnOrb((int) Math.min(Integer.MAX_VALUE, result.getExp())));
+        }
+        if (result.getCommandRuns() > 0) {
+            effects.add(new DispatchCommand(result.getCommandRuns()));
+        }
+        if (result.getJackpotContributions() > 0) {
+            effects.add(new ContributeJackpot(result.getJackpotAmount(), result.getJackpotContributions()));
+        }
+        if (result.isBroken()) {
+            effects.add(new BreakGenerator());
+        }
+        return Collections.unmodifiableList(effects);
+    }
+}
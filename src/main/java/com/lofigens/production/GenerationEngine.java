@@ -0,0 +1,130 @@
+package com.lofigens.production;
+
+import com.lofigens.LofiGens;
+import com.lofigens.managers.MetricsManager;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Compute phase of generator processing.
+ *
+ * The main thread submits jobs for the generators that are due. Workers turn each job into an
+ * outcome holding the effects of the generation, and the main thread polls the outcomes and
+ * applies them. Every submitted job produces exactly one outcome, even if computing it fails,
+ * so a generator that is waiting for its outcome is never lost. Without worker threads the
+ * outcomes are computed directly on submit.
+ */
+public class GenerationEngine {
+
+    /** Batches are split so every worker gets at least this many jobs */
+    private static final int MIN_SLICE = 64;
+
+    private final LofiGens plugin;
+    private final ExecutorService workers;      // Null when computing on the main thread
+    private final int threads;
+    private final ThreadLocal<ProductionCalculator> calculators;
+    private final Queue<GenerationOutcome> completed;
+    private final AtomicInteger pending;
+
+    public GenerationEngine(LofiGens plugin, int threads) {
+        this.plugin = plugin;
+        this.threads = Math.max(0, threads);
+        this.calculators = ThreadLocal.withInitial(() -> new ProductionCalculator(new Random()));
+        this.completed = new ConcurrentLinkedQueue<>();
+        this.pending = new AtomicInteger();
+
+        if (this.threads == 0) {
+            this.workers = null;
+        } else {
+            AtomicInteger counter = new AtomicInteger();
+            this.workers = Executors.newFixedThreadPool(this.threads, runnable -> {
+                Thread thread = new Thread(runnable, "LofiGens-Generation-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Queue jobs to be computed
+     */
+    public void submit(List<GenerationJob> jobs) {
+        if (jobs.isEmpty()) return;
+        pending.addAndGet(jobs.size());
+
+        if (workers == null) {
+            compute(jobs);
+            return;
+        }
+
+        int sliceSize = Math.max(MIN_SLICE, (jobs.size() + threads - 1) / threads);
+        for (int start = 0; start < jobs.size(); start += sliceSize) {
+            List<GenerationJob> slice = jobs.subList(start, Math.min(jobs.size(), start + sliceSize));
+            workers.execute(() -> compute(slice));
+        }
+    }
+
+    /**
+     * Take the next computed outcome
+     *
+     * @return the outcome, or null if none is ready
+     */
+    public GenerationOutcome poll() {
+        GenerationOutcome outcome = completed.poll();
+        if (outcome != null) {
+            pending.decrementAndGet();
+        }
+        return outcome;
+    }
+
+    /**
+     * Compute a batch of jobs (runs on a worker, or on the main thread without workers)
+     */
+    private void compute(List<GenerationJob> jobs) {
+        ProductionCalculator calculator = calculators.get();
+        MetricsManager metrics = plugin.getMetricsManager();
+        for (GenerationJob job : jobs) {
+            long start = System.nanoTime();
+            GenerationOutcome outcome;
+            try {
+                ProductionResult result = calculator.calculate(job.generator(), job.currentGenerations(), 1, job.multiplier());
+                outcome = new GenerationOutcome(job.generator(), job.currentGenerations(), result.getGenerations(),
+                    result.getFinalGenerationCount(), GenerationEffect.of(result));
+            } catch (RuntimeException e) {
+                // Still hand the generator back so it gets rescheduled
+                plugin.getLogger().log(Level.SEVERE, "Could not compute generation of " + job.generator().getId(), e);
+                outcome = new GenerationOutcome(job.generator(), job.currentGenerations(), 0, job.currentGenerations(),
+                    Collections.emptyList());
+            }
+            metrics.recordCompute(job.generator().getType(), System.nanoTime() - start);
+            completed.add(outcome);
+        }
+    }
+
+    /**
+     * Stop the workers, outcomes that were not applied yet are dropped
+     */
+    public void shutdown() {
+        if (workers == null) return;
+
+        workers.shutdown();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isAsync() { return workers != null; }
+    public int getThreads() { return threads; }
+    public int getPendingCount() { return pending.get(); }
+}
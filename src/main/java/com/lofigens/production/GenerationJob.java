@@ -0,0 +1,9 @@
+package com.lofigens.production;
+
+import com.lofigens.models.Generator;
+
+/**
+ * A due generation, with the generator state it starts from captured on the main thread
+ */
+public record GenerationJob(Generator generator, int currentGenerations, int multiplier) {
+}
@@ -0,0 +1,14 @@
+package com.lofigens.production;
+
+import com.lofigens.models.Generator;
+
+import java.util.List;
+
+/**
+ * The computed result of a generation job, waiting to be applied on the main thread
+ *
+ * @param startGenerations the generation count the job started from, to detect state that changed meanwhile
+ */
+public record GenerationOutcome(Generator generator, int startGenerations, long generations, int finalGenerationCount,
+                                List<GenerationEffect> effects) {
+}
@@ -0,0 +1,168 @@
+package com.lofigens.production;
+
+import com.lofigens.models.Generator;
+import org.bukkit.Material;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Computes what a generator produces over a number of generations without running them one by one
+ */
+public class ProductionCalculator {
+    
+    /** Batches up to this size are drawn one by one, larger ones are sampled */
+    private static final int EXACT_JACKPOT_DRAWS = 32;
+    
+    private final Random random;
+    
+    public ProductionCalculator(Random random) {
+        this.random = random;
+    }
+    
+    /**
+     * Calculate the output of a number of generations
+     * 
+     * @param generator the generator, which is not modified
+     * @param generations how many generations to run
+     * @param multiplier item and exp multiplier (double items)
+     */
+    public ProductionResult calculate(Generator generator, long generations, int multiplier) {
+        if (!generator.isWorking()) {
+            ProductionResult result = new ProductionResult();
+            result.setFinalGenerationCount(generator.getCurrentGenerations());
+            return result;
+        }
+        return calculate(generator, generator.getCurrentGenerations(), generations, multiplier);
+    }
+    
+    /**
+     * Calculate the output of a number of generations from a captured generation counter.
+     * Only the generator's configured values are read, so this is safe off the main thread.
+     * 
+     * @param generator the generator, which is not modified
+     * @param currentGenerations the generator's generation counter when the batch starts
+     * @param generations how many generations to run
+     * @param multiplier item and exp multiplier (double items)
+     */
+    public ProductionResult calculate(Generator generator, int currentGenerations, long generations, int multiplier) {
+        ProductionResult result = new ProductionResult();
+        result.setFinalGenerationCount(currentGenerations);
+        if (generations <= 0) {
+            return result;
+        }
+        
+        switch (generator.getType()) {
+            case ITEM:
+                if (generator.getItemType() != null) {
+                    result.addItems(generator.getItemType(), generations * multiplier);
+                }
+                result.setGenerations(generations);
+                break;
+                
+            case UNSTABLE:
+                calculateUnstable(generator, generations, multiplier, result);
+                break;
+                
+            case COMMAND:
+                result.addCommandRuns((int) Math.min(Integer.MAX_VALUE, generations));
+                result.setGenerations(generations);
+                break;
+                
+            case EXP:
+                result.addExp(generations * generator.getExpAmount() * multiplier);
+                result.setGenerations(generations);
+                break;
+                
+            case OVERCLOCKED:
+                calculateOverclocked(generator, currentGenerations, generations, multiplier, result);
+                break;
+                
+            case JACKPOT:
+                calculateJackpot(generator, generations, result);
+                break;
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Unstable generators produce, then roll their break chance.
+     * The generation that breaks is sampled directly from the geometric distribution.
+     */
+    private void calculateUnstable(Generator generator, long generations, int multiplier, ProductionResult result) {
+        double breakChance = generator.getBreakChance();
+        long produced = generations;
+        boolean broken = false;
+        
+        if (breakChance >= 1) {
+            produced = 1;
+            broken = true;
+        } else if (breakChance > 0) {
+            // 1 - nextDouble() is in (0, 1], so the logarithm is finite
+            double breakAt = 1 + Math.floor(Math.log(1 - random.nextDouble()) / Math.log1p(-breakChance));
+            if (breakAt <= generations) {
+                produced = (long) breakAt;
+                broken = true;
+            }
+        }
+        
+        if (generator.getItemType() != null) {
+            result.addItems(generator.getItemType(), produced * multiplier);
+        }
+        result.setGenerations(produced);
+        result.setBroken(broken);
+    }
+    
+    /**
+     * Overclocked generators cycle through their items until they reach their limit
+     */
+    private void calculateOverclocked(Generator generator, int current, long generations, int multiplier, ProductionResult result) {
+        long remaining = Math.max(0, generator.getMaxGenerations() - current);
+        long produced = Math.min(generations, remaining);
+        
+        List<Material> items = generator.getOverlockedItems();
+        if (items == null || items.isEmpty()) {
+            result.addItems(Material.STONE, produced * multiplier);
+        } else {
+            // Every item gets one per full cycle, the partial cycle continues where the generator left off
+            int cycle = items.size();
+            long fullCycles = produced / cycle;
+            long partial = produced % cycle;
+            for (int i = 0; i < cycle; i++) {
+                long offset = Math.floorMod(i - current, cycle);
+                result.addItems(items.get(i), (fullCycles + (offset < partial ? 1 : 0)) * multiplier);
+            }
+        }
+        
+        result.setGenerations(produced);
+        result.setFinalGenerationCount((int) (current + produced));
+        result.setBroken(current + produced >= generator.getMaxGenerations());
+    }
+    
+    /**
+     * Jackpot generators draw a uniform amount per generation.
+     * Large batches sample the sum of the draws from its normal approximation.
+     */
+    private void calculateJackpot(Generator generator, long generations, ProductionResult result) {
+        int min = generator.getMinJackpotAmount();
+        int max = Math.max(min, generator.getMaxJackpotAmount());
+        long range = (long) max - min + 1;
+        long total;
+        
+        if (generations <= EXACT_JACKPOT_DRAWS) {
+            total = 0;
+            for (long i = 0; i < generations; i++) {
+                total += min + (long) (random.nextDouble() * range);
+            }
+        } else {
+            double mean = generations * (min + max) / 2.0;
+            double variance = generations * (range * range - 1) / 12.0;
+            double sample = Math.round(mean + random.nextGaussian() * Math.sqrt(variance));
+            total = (long) Math.max((double) generations * min, Math.min((double) generations * max, sample));
+        }
+        
+        result.addJackpot(total, (int) Math.min(Integer.MAX_VALUE, generations));
+        result.setGenerations(generations);
+    }
+}
@@ -0,0 +1,63 @@
+package com.lofigens.production;
+
+import org.bukkit.Material;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Output of a batch of generations, computed without touching the generator
+ */
+public class ProductionResult {
+    
+    private final Map<Material, Long> items = new EnumMap<>(Material.class);
+    private long totalItems;
+    private long exp;
+    private long jackpotAmount;
+    private int jackpotContributions;
+    private int commandRuns;
+    private long generations;
+    private int finalGenerationCount;
+    private boolean broken;
+    
+    /**
+     * Add generated items
+     */
+    public void addItems(Material material, long amount) {
+        if (amount <= 0) return;
+        items.merge(material, amount, Long::sum);
+        totalItems += amount;
+    }
+    
+    public void addExp(long amount) { this.exp += amount; }
+    
+    public void addJackpot(long amount, int contributions) {
+        this.jackpotAmount += amount;
+        this.jackpotContributions += contributions;
+    }
+    
+    public void addCommandRuns(int runs) { this.commandRuns += runs; }
+    
+    public void setGenerations(long generations) { this.generations = generations; }
+    public void setFinalGenerationCount(int finalGenerationCount) { this.finalGenerationCount = finalGenerationCount; }
+    public void setBroken(boolean broken) { this.broken = broken; }
+    
+    // Getters
+    public Map<Material, Long> getItems() { return items; }
+    public long getTotalItems() { return totalItems; }
+    public long getExp() { return exp; }
+    public long getJackpotAmount() { return jackpotAmount; }
+    public int getJackpotContributions() { return jackpotContributions; }
+    public int getCommandRuns() { return commandRuns; }
+    public long getGenerations() { return generations; }
+    public int getFinalGenerationCount() { return finalGenerationCount; }
+    public boolean isBroken() { return broken; }
+    
+    /**
+     * Check if the batch changed nothing. A generator that breaks without producing,
+     * such as an overclocked generator already at its limit, is not empty.
+     */
+    public boolean isEmpty() {
+        return generations == 0 && !broken;
+    }
+}
@@ -0,0 +1,38 @@
+package com.lofigens.production;
+
+import org.bukkit.Material;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Rewards of several generators merged together so they can be handed out in one pass
+ */
+public class RewardBundle {
+
+    private final Map<Material, Long> items = new EnumMap<>(Material.class);
+    private long totalItems;
+    private long exp;
+    private long jackpotAmount;
+    private int jackpotContributions;
+
+    /**
+     * Merge the output of a generator into the bundle
+     */
+    public void add(ProductionResult result) {
+        for (Map.Entry<Material, Long> entry : result.getItems().entrySet()) {
+            items.merge(entry.getKey(), entry.getValue(), Long::sum);
+        }
+        totalItems += result.getTotalItems();
+        exp += result.getExp();
+        jackpotAmount += result.getJackpotAmount();
+        jackpotContributions += result.getJackpotContributions();
+    }
+
+    // Getters
+    public Map<Material, Long> getItems() { return items; }
+    public long getTotalItems() { return totalItems; }
+    public long getExp() { return exp; }
+    public long getJackpotAmount() { return jackpotAmount; }
+    public int getJackpotContributions() { return jackpotContributions; }
+}
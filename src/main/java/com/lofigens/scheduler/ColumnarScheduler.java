@@ -0,0 +1,182 @@
+package com.lofigens.scheduler;
+
+import com.lofigens.models.Generator;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Timing wheel over a struct-of-arrays generator store.
+ *
+ * Scheduled generators are attached to a {@link GeneratorColumns} store, which keeps their
+ * hot fields in parallel primitive arrays. Like {@link TimingWheel}, each generator sits in
+ * the bucket for its next fire tick (modulo the wheel size) and advancing only visits a
+ * single bucket, but a bucket here is a pair of arrays: the rows and their fire ticks. Finding
+ * the due generators reads the bucket sequentially; neither the row columns nor a generator
+ * object are touched for entries that are a rotation or more ahead. Every row remembers its
+ * position in its bucket, so unscheduling is O(1).
+ *
+ * Generators keep their row while they are off the wheel, e.g. while they run or are broken,
+ * and only give it back when they are released.
+ */
+public class ColumnarScheduler implements GeneratorScheduler {
+
+    private static final int INITIAL_BUCKET_CAPACITY = 8;
+
+    private final GeneratorColumns columns;
+    private final int[][] buckets;
+    private final long[][] bucketTicks;
+    private final int[] bucketSizes;
+    private final int mask;
+    private long currentTick;
+    private int size;
+    private int lastDueCount;
+
+    public ColumnarScheduler(int wheelSize) {
+        // Round up to a power of two so the bucket index is a simple mask
+        int capacity = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1;
+        this.columns = new GeneratorColumns();
+        this.buckets = new int[capacity][INITIAL_BUCKET_CAPACITY];
+        this.bucketTicks = new long[capacity][INITIAL_BUCKET_CAPACITY];
+        this.bucketSizes = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    @Override
+    public void schedule(Generator generator, long tick) {
+        int row = columns.attach(generator);
+        if (columns.fireTicks[row] >= 0) {
+            removeFromBucket(row);
+            size--;
+        }
+
+        // Never schedule into the past, the bucket would not be visited again for a full rotation
+        long fireTick = Math.max(tick, currentTick + 1);
+        int bucket = (int) (fireTick & mask);
+        int position = bucketSizes[bucket]++;
+        if (position == buckets[bucket].length) {
+            buckets[bucket] = Arrays.copyOf(buckets[bucket], position * 2);
+            bucketTicks[bucket] = Arrays.copyOf(bucketTicks[bucket], position * 2);
+        }
+
+        buckets[bucket][position] = row;
+        bucketTicks[bucket][position] = fireTick;
+        columns.positions[row] = position;
+        columns.fireTicks[row] = fireTick;
+        size++;
+    }
+
+    @Override
+    public boolean unschedule(Generator generator) {
+        if (generator.getColumns() != columns) return false;
+
+        int row = generator.getColumnRow();
+        if (columns.fireTicks[row] < 0) return false;
+
+        removeFromBucket(row);
+        columns.fireTicks[row] = -1;
+        size--;
+        return true;
+    }
+
+    @Override
+    public void release(Generator generator) {
+        unschedule(generator);
+        columns.detach(generator);
+    }
+
+    /**
+     * Swap the last row of a bucket into a row's position, so every position stays filled
+     */
+    private void removeFromBucket(int row) {
+        int bucket = (int) (columns.fireTicks[row] & mask);
+        int position = columns.positions[row];
+        int last = --bucketSizes[bucket];
+        if (position != last) {
+            int moved = buckets[bucket][last];
+            buckets[bucket][position] = moved;
+            bucketTicks[bucket][position] = bucketTicks[bucket][last];
+            columns.positions[moved] = position;
+        }
+        columns.positions[row] = -1;
+    }
+
+    @Override
+    public void advance(Collection<? super Generator> due) {
+        currentTick++;
+        lastDueCount = 0;
+
+        int bucket = (int) (currentTick & mask);
+        int count = bucketSizes[bucket];
+        if (count == 0) return;
+
+        // Compact the rows that stay in place, a bucket that is entirely due moves nothing
+        int[] rows = buckets[bucket];
+        long[] ticks = bucketTicks[bucket];
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (ticks[i] <= currentTick) {
+                columns.fireTicks[row] = -1;
+                due.add(columns.generators[row]);
+            } else {
+                if (kept != i) {
+                    rows[kept] = row;
+                    ticks[kept] = ticks[i];
+                    columns.positions[row] = kept;
+                }
+                kept++;
+            }
+        }
+
+        bucketSizes[bucket] = kept;
+        lastDueCount = count - kept;
+        size -= lastDueCount;
+    }
+
+    @Override
+    public void clear() {
+        for (int bucket = 0; bucket < bucketSizes.length; bucket++) {
+            for (int position = 0; position < bucketSizes[bucket]; position++) {
+                columns.fireTicks[buckets[bucket][position]] = -1;
+            }
+            bucketSizes[bucket] = 0;
+        }
+        columns.detachAll();
+        size = 0;
+    }
+
+    @Override
+    public int[] getUpcoming(int ticks) {
+        int[] upcoming = new int[Math.min(ticks, bucketSizes.length)];
+        for (int i = 0; i < upcoming.length; i++) {
+            long tick = currentTick + 1 + i;
+            int bucket = (int) (tick & mask);
+            for (int position = 0; position < bucketSizes[bucket]; position++) {
+                if (bucketTicks[bucket][position] == tick) {
+                    upcoming[i]++;
+                }
+            }
+        }
+        return upcoming;
+    }
+
+    /**
+     * Get the number of generators in each bucket
+     */
+    public int[] getBucketOccupancy() {
+        return bucketSizes.clone();
+    }
+
+    /**
+     * Get the store holding the hot fields of the attached generators
+     */
+    public GeneratorColumns getColumns() {
+        return columns;
+    }
+
+    public int getBucketCount() { return bucketSizes.length; }
+    public long getCurrentTick() { return currentTick; }
+    public int getSize() { return size; }
+    public int getLastDueCount() { return lastDueCount; }
+}
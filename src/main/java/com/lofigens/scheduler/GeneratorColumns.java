@@ -0,0 +1,169 @@
+package com.lofigens.scheduler;
+
+import com.lofigens.models.Generator;
+import com.lofigens.models.GeneratorDefinition;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The hot fields of generators, kept in parallel primitive arrays.
+ *
+ * Every attached generator owns a row: its next fire tick, working flag, definition index,
+ * owner index and generation counter sit at that index of each column. While attached, the
+ * generator's getters and setters for these fields read and write its row, so the columns
+ * are the only copy and the generator stays a façade for everything else. Detaching copies
+ * the values back into the generator and frees the row for the next one.
+ *
+ * Definitions are indexed by their ID, so a reloaded definition takes over the index of the
+ * one it replaces. Owners keep their index for as long as the store exists.
+ *
+ * Not thread-safe; all access is expected to happen on the main thread.
+ */
+public final class GeneratorColumns {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Columns, indexed by row
+    long[] fireTicks;           // -1 while the row is not on the wheel
+    boolean[] working;
+    int[] definitionIds;
+    int[] ownerIds;
+    int[] generations;
+    int[] positions;            // Index of the row in its wheel bucket
+    Generator[] generators;     // The façade of each row, null for free rows
+
+    private int rowCount;       // Rows ever handed out, free rows below this are on the free list
+    private int[] freeRows;
+    private int freeCount;
+    private int attached;
+
+    private final Map<String, Integer> definitionIndex;
+    private GeneratorDefinition[] definitions;
+    private final Map<UUID, Integer> ownerIndex;
+    private UUID[] owners;
+
+    public GeneratorColumns() {
+        this.fireTicks = new long[INITIAL_CAPACITY];
+        this.working = new boolean[INITIAL_CAPACITY];
+        this.definitionIds = new int[INITIAL_CAPACITY];
+        this.ownerIds = new int[INITIAL_CAPACITY];
+        this.generations = new int[INITIAL_CAPACITY];
+        this.positions = new int[INITIAL_CAPACITY];
+        this.generators = new Generator[INITIAL_CAPACITY];
+        this.freeRows = new int[16];
+        this.definitionIndex = new HashMap<>();
+        this.definitions = new GeneratorDefinition[16];
+        this.ownerIndex = new HashMap<>();
+        this.owners = new UUID[16];
+    }
+
+    /**
+     * Get a generator's row, moving its hot fields into a new row if it isn't attached yet
+     */
+    public int attach(Generator generator) {
+        if (generator.getColumns() == this) {
+            return generator.getColumnRow();
+        }
+
+        int row = freeCount > 0 ? freeRows[--freeCount] : rowCount++;
+        if (row == fireTicks.length) {
+            grow();
+        }
+
+        fireTicks[row] = generator.getNextFireTick();
+        working[row] = generator.isWorking();
+        definitionIds[row] = indexDefinition(generator.getDefinition());
+        ownerIds[row] = indexOwner(generator.getOwnerUUID());
+        generations[row] = generator.getCurrentGenerations();
+        positions[row] = -1;
+        generators[row] = generator;
+        generator.attachColumns(this, row);
+        attached++;
+        return row;
+    }
+
+    /**
+     * Copy a generator's hot fields back into it and free its row
+     *
+     * @return true if the generator was attached
+     */
+    public boolean detach(Generator generator) {
+        if (generator.getColumns() != this) return false;
+
+        int row = generator.getColumnRow();
+        generator.detachColumns();
+        generators[row] = null;
+        if (freeCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+        }
+        freeRows[freeCount++] = row;
+        attached--;
+        return true;
+    }
+
+    /**
+     * Detach every generator
+     */
+    public void detachAll() {
+        for (int row = 0; row < rowCount; row++) {
+            if (generators[row] != null) {
+                detach(generators[row]);
+            }
+        }
+    }
+
+    private void grow() {
+        int capacity = fireTicks.length * 2;
+        fireTicks = Arrays.copyOf(fireTicks, capacity);
+        working = Arrays.copyOf(working, capacity);
+        definitionIds = Arrays.copyOf(definitionIds, capacity);
+        ownerIds = Arrays.copyOf(ownerIds, capacity);
+        generations = Arrays.copyOf(generations, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+        generators = Arrays.copyOf(generators, capacity);
+    }
+
+    private int indexDefinition(GeneratorDefinition definition) {
+        Integer index = definitionIndex.get(definition.getId());
+        if (index == null) {
+            index = definitionIndex.size();
+            definitionIndex.put(definition.getId(), index);
+            if (index == definitions.length) {
+                definitions = Arrays.copyOf(definitions, index * 2);
+            }
+        }
+        definitions[index] = definition;
+        return index;
+    }
+
+    private int indexOwner(UUID owner) {
+        Integer index = ownerIndex.get(owner);
+        if (index == null) {
+            index = ownerIndex.size();
+            ownerIndex.put(owner, index);
+            if (index == owners.length) {
+                owners = Arrays.copyOf(owners, index * 2);
+            }
+            owners[index] = owner;
+        }
+        return index;
+    }
+
+    // Row accessors, used by the generator façade
+    public long getFireTick(int row) { return fireTicks[row]; }
+    public boolean isWorking(int row) { return working[row]; }
+    public int getGenerations(int row) { return generations[row]; }
+    public GeneratorDefinition getDefinition(int row) { return definitions[definitionIds[row]]; }
+    public UUID getOwner(int row) { return owners[ownerIds[row]]; }
+
+    public void setFireTick(int row, long fireTick) { fireTicks[row] = fireTick; }
+    public void setWorking(int row, boolean value) { working[row] = value; }
+    public void setGenerations(int row, int value) { generations[row] = value; }
+    public void setDefinition(int row, GeneratorDefinition definition) { definitionIds[row] = indexDefinition(definition); }
+
+    public int getAttachedCount() { return attached; }
+    public int getCapacity() { return fireTicks.length; }
+}
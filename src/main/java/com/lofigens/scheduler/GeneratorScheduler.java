@@ -0,0 +1,60 @@
+package com.lofigens.scheduler;
+
+import com.lofigens.models.Generator;
+
+import java.util.Collection;
+
+/**
+ * Hands out generators on the server tick they are due.
+ *
+ * A scheduled generator's next fire tick is stored on the generator, and is -1 while it
+ * is not scheduled. Implementations differ in how they find the due generators.
+ */
+public interface GeneratorScheduler {
+
+    /**
+     * Schedule a generator to fire on the given tick, replacing any earlier schedule
+     */
+    void schedule(Generator generator, long tick);
+
+    /**
+     * Schedule a generator to fire a number of ticks from now
+     */
+    default void scheduleIn(Generator generator, long delay) {
+        schedule(generator, getCurrentTick() + delay);
+    }
+
+    /**
+     * Remove a generator from the scheduler
+     *
+     * @return true if it was scheduled
+     */
+    boolean unschedule(Generator generator);
+
+    /**
+     * Remove a generator that is no longer placed, along with anything kept for it off the wheel
+     */
+    default void release(Generator generator) {
+        unschedule(generator);
+    }
+
+    /**
+     * Advance by one tick and add every due generator to the given collection.
+     * Due generators are unscheduled, so they may be rescheduled while they are processed.
+     */
+    void advance(Collection<? super Generator> due);
+
+    /**
+     * Remove every generator
+     */
+    void clear();
+
+    /**
+     * Get the number of generators due on each of the upcoming ticks
+     */
+    int[] getUpcoming(int ticks);
+
+    long getCurrentTick();
+    int getSize();
+    int getLastDueCount();
+}
@@ -0,0 +1,149 @@
+package com.lofigens.scheduler;
+
+import com.lofigens.models.Generator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Hashed timing wheel that hands out generators on the server tick they are due.
+ *
+ * Each generator sits in the bucket for its next fire tick (modulo the wheel size).
+ * Advancing the wheel only visits a single bucket, so generators that are not due
+ * cost nothing. Generators scheduled more than one rotation ahead stay in their
+ * bucket and are skipped until their tick comes around. Every generator remembers
+ * its slot in its bucket, so unscheduling doesn't search the bucket.
+ */
+public class TimingWheel implements GeneratorScheduler {
+
+    private final List<Generator>[] buckets;
+    private final int mask;
+    private long currentTick;
+    private int size;
+    private int lastDueCount;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(int wheelSize) {
+        // Round up to a power of two so the bucket index is a simple mask
+        int capacity = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1;
+        this.buckets = new List[capacity];
+        for (int i = 0; i < capacity; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.mask = capacity - 1;
+        this.currentTick = 0;
+    }
+
+    @Override
+    public void schedule(Generator generator, long tick) {
+        if (generator.getNextFireTick() >= 0) {
+            unschedule(generator);
+        }
+
+        // Never schedule into the past, the bucket would not be visited again for a full rotation
+        long fireTick = Math.max(tick, currentTick + 1);
+        List<Generator> bucket = buckets[(int) (fireTick & mask)];
+        generator.setNextFireTick(fireTick);
+        generator.setSchedulerSlot(bucket.size());
+        bucket.add(generator);
+        size++;
+    }
+
+    @Override
+    public boolean unschedule(Generator generator) {
+        long fireTick = generator.getNextFireTick();
+        if (fireTick < 0) return false;
+
+        List<Generator> bucket = buckets[(int) (fireTick & mask)];
+        int slot = generator.getSchedulerSlot();
+        generator.setNextFireTick(-1);
+        generator.setSchedulerSlot(-1);
+        if (slot < 0 || slot >= bucket.size() || bucket.get(slot) != generator) {
+            return false;
+        }
+
+        removeAt(bucket, slot);
+        size--;
+        return true;
+    }
+
+    /**
+     * Swap the last entry of a bucket into a slot, so removal never shifts the bucket
+     */
+    private static void removeAt(List<Generator> bucket, int slot) {
+        int last = bucket.size() - 1;
+        if (slot != last) {
+            Generator moved = bucket.get(last);
+            bucket.set(slot, moved);
+            moved.setSchedulerSlot(slot);
+        }
+        bucket.remove(last);
+    }
+
+    @Override
+    public void advance(Collection<? super Generator> due) {
+        currentTick++;
+        List<Generator> bucket = buckets[(int) (currentTick & mask)];
+        lastDueCount = 0;
+        if (bucket.isEmpty()) return;
+
+        // Swap-remove due entries so the bucket never shifts
+        int i = 0;
+        while (i < bucket.size()) {
+            Generator generator = bucket.get(i);
+            if (generator.getNextFireTick() <= currentTick) {
+                removeAt(bucket, i);
+                generator.setNextFireTick(-1);
+                generator.setSchedulerSlot(-1);
+                due.add(generator);
+                lastDueCount++;
+                size--;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (List<Generator> bucket : buckets) {
+            for (Generator generator : bucket) {
+                generator.setNextFireTick(-1);
+                generator.setSchedulerSlot(-1);
+            }
+            bucket.clear();
+        }
+        size = 0;
+    }
+
+    /**
+     * Get the number of generators in each bucket
+     */
+    public int[] getBucketOccupancy() {
+        int[] occupancy = new int[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            occupancy[i] = buckets[i].size();
+        }
+        return occupancy;
+    }
+
+    @Override
+    public int[] getUpcoming(int ticks) {
+        int[] upcoming = new int[Math.min(ticks, buckets.length)];
+        for (int i = 0; i < upcoming.length; i++) {
+            long tick = currentTick + 1 + i;
+            for (Generator generator : buckets[(int) (tick & mask)]) {
+                if (generator.getNextFireTick() == tick) {
+                    upcoming[i]++;
+                }
+            }
+        }
+        return upcoming;
+    }
+
+    public long getCurrentTick() { return currentTick; }
+    public int getSize() { return size; }
+    public int getLastDueCount() { return lastDueCount; }
+    public int getBucketCount() { return buckets.length; }
+}
@@ -0,0 +1,529 @@
+package com.lofigens.storage;
+
+import com.lofigens.LofiGens;
+import com.lofigens.metrics.Phase;
+import com.lofigens.models.Generator;
+import com.lofigens.utils.BlockKeys;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+
+/**
+ * Binary persistence for placed generators.
+ *
+ * Generators are stored in one file per world and region (32x32 chunks), mirroring the
+ * vanilla region layout. Regions are read the first time one of their chunks loads and
+ * only regions that changed since the last save are rewritten. Encoding happens on the
+ * main thread, file reads and writes run on a dedicated storage thread.
+ */
+public class GeneratorStore {
+
+    private static final int MAGIC = 0x4C474752; // "LGGR"
+    private static final byte VERSION = 2;
+
+    private final LofiGens plugin;
+    private final File directory;
+    private final ExecutorService writer;
+    private final Set<RegionKey> loadedRegions;
+    private final Set<RegionKey> dirtyRegions;
+    private final Set<RegionKey> pendingRegions;     // Being read on the storage thread
+    private final Set<RegionKey> failedRegions;     // Unreadable files that could not be moved aside, never written
+    private final Map<RegionKey, Set<Generator>> regionGenerators;
+    private final Map<RegionKey, List<StoredGenerator>> unresolvedGenerators; // Unknown types, written back unchanged
+    private BukkitTask saveTask;
+
+    // Timings of the last load and save, shown in /generators debug storage
+    private long lastSaveNanos;
+    private int lastSaveRegions;
+    private int lastSaveGenerators;
+    private long totalLoadNanos;
+    private int totalLoadedGenerators;
+    private volatile long totalBytesWritten;    // Only updated by the writer thread
+
+    public GeneratorStore(LofiGens plugin) {
+        this.plugin = plugin;
+        this.directory = new File(plugin.getDataFolder(), "generators");
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "LofiGens-GeneratorStore");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.loadedRegions = new HashSet<>();
+        this.dirtyRegions = new HashSet<>();
+        this.pendingRegions = new HashSet<>();
+        this.failedRegions = new HashSet<>();
+        this.regionGenerators = new HashMap<>();
+        this.unresolvedGenerators = new HashMap<>();
+    }
+
+    /**
+     * Start the periodic save task
+     */
+    public void startSaveTask() {
+        if (saveTask != null) {
+            saveTask.cancel();
+        }
+
+        long interval = Math.max(1, plugin.getConfigManager().getConfig().getInt("storage.save-interval", 60)) * 20L;
+        saveTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                saveDirtyRegions();
+            }
+        }.runTaskTimer(plugin, interval, interval);
+    }
+
+    /**
+     * Load a region on the calling thread if it has not been loaded yet
+     *
+     * A file that can't be read is moved aside to a .corrupt file before anything can be
+     * written to the region, so its data can still be recovered by hand.
+     *
+     * @return the generators stored in the region, or null if it was already loaded or is being read
+     */
+    public List<StoredGenerator> loadRegion(World world, int regionX, int regionZ) {
+        RegionKey key = new RegionKey(world.getUID(), regionX, regionZ);
+        if (!isRegionUnread(key)) {
+            return null;
+        }
+
+        File file = getRegionFile(key);
+        long start = System.nanoTime();
+        try {
+            return finishLoad(key, readRegionFile(file), System.nanoTime() - start);
+        } catch (IOException e) {
+            return failLoad(key, file, e);
+        }
+    }
+
+    /**
+     * Read a region on the storage thread if it has not been loaded yet, and hand its
+     * generators to the callback on the main thread.
+     *
+     * Until the callback runs the region counts as not loaded, so nothing is written to it.
+     * A region that is already loaded or being read is ignored.
+     *
+     * @return true if a read was started
+     */
+    public boolean loadRegionAsync(World world, int regionX, int regionZ, Consumer<List<StoredGenerator>> callback) {
+        RegionKey key = new RegionKey(world.getUID(), regionX, regionZ);
+        if (!isRegionUnread(key)) {
+            return false;
+        }
+
+        pendingRegions.add(key);
+        File file = getRegionFile(key);
+        writer.execute(() -> {
+            long start = System.nanoTime();
+            Runnable finish;
+            try {
+                List<StoredGenerator> generators = readRegionFile(file);
+                long nanos = System.nanoTime() - start;
+                finish = () -> callback.accept(finishLoad(key, generators, nanos));
+            } catch (IOException e) {
+                finish = () -> callback.accept(failLoad(key, file, e));
+            }
+
+            // A region still unread when the plugin stops is simply not loaded, and never written
+            if (plugin.isEnabled()) {
+                Runnable complete = finish;
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    pendingRegions.remove(key);
+                    complete.run();
+                });
+            }
+        });
+        return true;
+    }
+
+    private boolean isRegionUnread(RegionKey key) {
+        return !loadedRegions.contains(key) && !pendingRegions.contains(key) && !failedRegions.contains(key);
+    }
+
+    private List<StoredGenerator> finishLoad(RegionKey key, List<StoredGenerator> generators, long nanos) {
+        loadedRegions.add(key);
+        totalLoadNanos += nanos;
+        totalLoadedGenerators += generators.size();
+        return generators;
+    }
+
+    private List<StoredGenerator> failLoad(RegionKey key, File file, IOException e) {
+        plugin.getLogger().log(Level.SEVERE, "Could not load generator region " + file.getPath(), e);
+        quarantineRegion(key, file);
+        return Collections.emptyList();
+    }
+
+    /**
+     * Read and decode a region file (safe on any thread)
+     *
+     * @return the stored generators, or an empty list if the file doesn't exist
+     */
+    private List<StoredGenerator> readRegionFile(File file) throws IOException {
+        if (!file.exists()) {
+            return Collections.emptyList();
+        }
+
+        List<StoredGenerator> generators = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Invalid region file header");
+            }
+
+            byte version = in.readByte();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported region file version " + version);
+            }
+
+            String[] palette = new String[in.readUnsignedShort()];
+            for (int i = 0; i < palette.length; i++) {
+                palette[i] = in.readUTF();
+            }
+
+            // Collector materials were added in version 2
+            Material[] materialPalette = new Material[version >= 2 ? in.readUnsignedShort() : 0];
+            for (int i = 0; i < materialPalette.length; i++) {
+                materialPalette[i] = Material.matchMaterial(in.readUTF());
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID owner = new UUID(in.readLong(), in.readLong());
+                long position = in.readLong();
+                String generatorId = palette[in.readUnsignedShort()];
+                long lastGeneration = in.readLong();
+                int currentGenerations = in.readInt();
+                boolean working = in.readBoolean();
+
+                Map<Material, Long> storedItems = Collections.emptyMap();
+                if (version >= 2) {
+                    int storedCount = in.readUnsignedByte();
+                    if (storedCount > 0) {
+                        storedItems = new EnumMap<>(Material.class);
+                        for (int j = 0; j < storedCount; j++) {
+                            Material material = materialPalette[in.readUnsignedShort()];
+                            long amount = in.readLong();
+                            if (material != null) {
+                                storedItems.put(material, amount);
+                            }
+                        }
+                    }
+                }
+
+                generators.add(new StoredGenerator(owner, position, generatorId, lastGeneration,
+                    currentGenerations, working, storedItems));
+            }
+        } catch (RuntimeException e) {
+            // E.g. a palette index out of range in a damaged file
+            throw new IOException("Malformed region file", e);
+        }
+        return generators;
+    }
+
+    /**
+     * Move an unreadable region file aside, or stop writing the region if that fails
+     */
+    private void quarantineRegion(RegionKey key, File file) {
+        File corrupt = new File(file.getParentFile(), file.getName() + ".corrupt");
+        if (corrupt.exists()) {
+            corrupt = new File(file.getParentFile(), file.getName() + "." + System.currentTimeMillis() + ".corrupt");
+        }
+
+        try {
+            Files.move(file.toPath(), corrupt.toPath());
+            plugin.getLogger().warning("Moved unreadable generator region to " + corrupt.getPath());
+            // Nothing is left on disk, so the region starts out empty
+            loadedRegions.add(key);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not move unreadable generator region " + file.getPath()
+                + " aside, generators in this region will not be saved until it is fixed or removed", e);
+            failedRegions.add(key);
+        }
+    }
+
+    /**
+     * Start tracking a generator that was placed or restored
+     */
+    public void track(Generator generator) {
+        RegionKey key = RegionKey.of(generator.getLocation());
+        regionGenerators.computeIfAbsent(key, k -> new HashSet<>()).add(generator);
+        dirtyRegions.add(key);
+    }
+
+    /**
+     * Stop tracking a generator that was removed
+     */
+    public void untrack(Generator generator) {
+        RegionKey key = RegionKey.of(generator.getLocation());
+        Set<Generator> generators = regionGenerators.get(key);
+        if (generators != null && generators.remove(generator) && generators.isEmpty()) {
+            regionGenerators.remove(key);
+        }
+        dirtyRegions.add(key);
+    }
+
+    /**
+     * Keep a stored generator whose type doesn't exist in the config, so saving its region
+     * writes it back unchanged instead of deleting it
+     */
+    public void retainUnresolved(World world, StoredGenerator stored) {
+        RegionKey key = new RegionKey(world.getUID(), BlockKeys.unpackX(stored.position()) >> 9,
+            BlockKeys.unpackZ(stored.position()) >> 9);
+        unresolvedGenerators.computeIfAbsent(key, k -> new ArrayList<>()).add(stored);
+    }
+
+    /**
+     * Take the kept generators of a world whose type exists again, e.g. after a reload
+     */
+    public List<StoredGenerator> takeResolved(World world, Predicate<String> isKnownType) {
+        List<StoredGenerator> resolved = new ArrayList<>();
+        Iterator<Map.Entry<RegionKey, List<StoredGenerator>>> iterator = unresolvedGenerators.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<RegionKey, List<StoredGenerator>> entry = iterator.next();
+            if (!entry.getKey().worldId().equals(world.getUID())) continue;
+
+            entry.getValue().removeIf(stored -> {
+                if (!isKnownType.test(stored.generatorId())) return false;
+                resolved.add(stored);
+                return true;
+            });
+            if (entry.getValue().isEmpty()) {
+                iterator.remove();
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Mark the region of a generator as changed
+     */
+    public void markDirty(Generator generator) {
+        dirtyRegions.add(RegionKey.of(generator.getLocation()));
+    }
+
+    /**
+     * Encode every dirty region and hand the bytes to the writer thread
+     */
+    public void saveDirtyRegions() {
+        if (dirtyRegions.isEmpty()) return;
+
+        long start = System.nanoTime();
+        int regionCount = 0;
+        int generatorCount = 0;
+
+        Iterator<RegionKey> iterator = dirtyRegions.iterator();
+        while (iterator.hasNext()) {
+            RegionKey key = iterator.next();
+            // Never write a region whose file is still being read or could not be read, it stays dirty
+            if (!loadedRegions.contains(key)) continue;
+
+            iterator.remove();
+            regionCount++;
+            Set<Generator> generators = regionGenerators.getOrDefault(key, Collections.emptySet());
+            List<StoredGenerator> unresolved = unresolvedGenerators.getOrDefault(key, Collections.emptyList());
+            File file = getRegionFile(key);
+
+            if (generators.isEmpty() && unresolved.isEmpty()) {
+                writer.execute(() -> deleteRegionFile(file));
+                continue;
+            }
+
+            try {
+                byte[] data = encodeRegion(generators, unresolved);
+                writer.execute(() -> writeRegionFile(file, data));
+                generatorCount += generators.size() + unresolved.size();
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not encode generator region " + file.getPath(), e);
+            }
+        }
+
+        lastSaveRegions = regionCount;
+        lastSaveGenerators = generatorCount;
+        lastSaveNanos = System.nanoTime() - start;
+        plugin.getMetricsManager().record(Phase.GENERATOR_SAVE, lastSaveNanos);
+    }
+
+    /**
+     * Save everything that changed and wait for the writer thread to finish
+     */
+    public void shutdown() {
+        if (saveTask != null) {
+            saveTask.cancel();
+        }
+
+        saveDirtyRegions();
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Timed out while writing generator regions");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        plugin.getLogger().info("Saved " + lastSaveGenerators + " generators in " + lastSaveRegions + " regions");
+    }
+
+    /**
+     * Encode the generators of a region, together with the stored ones whose type is unknown
+     */
+    private byte[] encodeRegion(Collection<Generator> generators, List<StoredGenerator> unresolved) throws IOException {
+        Map<String, Integer> palette = new LinkedHashMap<>();
+        Map<Material, Integer> materialPalette = new LinkedHashMap<>();
+        for (Generator generator : generators) {
+            palette.putIfAbsent(generator.getId(), palette.size());
+            if (generator.getTotalStoredItems() > 0) {
+                for (Material material : generator.getOutputMaterials()) {
+                    materialPalette.putIfAbsent(material, materialPalette.size());
+                }
+            }
+        }
+        for (StoredGenerator stored : unresolved) {
+            palette.putIfAbsent(stored.generatorId(), palette.size());
+            for (Material material : stored.storedItems().keySet()) {
+                materialPalette.putIfAbsent(material, materialPalette.size());
+            }
+        }
+
+        // 8 + 8 + 8 + 2 + 8 + 4 + 1 + 1 bytes per generator without collector storage
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + generators.size() * 40);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+
+            out.writeShort(palette.size());
+            for (String generatorId : palette.keySet()) {
+                out.writeUTF(generatorId);
+            }
+
+            out.writeShort(materialPalette.size());
+            for (Material material : materialPalette.keySet()) {
+                out.writeUTF(material.name());
+            }
+
+            out.writeInt(generators.size() + unresolved.size());
+            for (Generator generator : generators) {
+                Location location = generator.getLocation();
+                out.writeLong(generator.getOwnerUUID().getMostSignificantBits());
+                out.writeLong(generator.getOwnerUUID().getLeastSignificantBits());
+                out.writeLong(BlockKeys.pack(location.getBlockX(), location.getBlockY(), location.getBlockZ()));
+                out.writeShort(palette.get(generator.getId()));
+                out.writeLong(generator.getLastGeneration());
+                out.writeInt(generator.getCurrentGenerations());
+                out.writeBoolean(generator.isWorking());
+
+                // Collector storage, only materials with a stored amount
+                Material[] materials = generator.getOutputMaterials();
+                int storedCount = 0;
+                for (int i = 0; i < materials.length; i++) {
+                    if (generator.getStoredAmount(i) > 0) storedCount++;
+                }
+                out.writeByte(storedCount);
+                for (int i = 0; i < materials.length; i++) {
+                    long amount = generator.getStoredAmount(i);
+                    if (amount > 0) {
+                        out.writeShort(materialPalette.get(materials[i]));
+                        out.writeLong(amount);
+                    }
+                }
+            }
+
+            for (StoredGenerator stored : unresolved) {
+                out.writeLong(stored.ownerUUID().getMostSignificantBits());
+                out.writeLong(stored.ownerUUID().getLeastSignificantBits());
+                out.writeLong(stored.position());
+                out.writeShort(palette.get(stored.generatorId()));
+                out.writeLong(stored.lastGeneration());
+                out.writeInt(stored.currentGenerations());
+                out.writeBoolean(stored.working());
+
+                out.writeByte(stored.storedItems().size());
+                for (Map.Entry<Material, Long> entry : stored.storedItems().entrySet()) {
+                    out.writeShort(materialPalette.get(entry.getKey()));
+                    out.writeLong(entry.getValue());
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Write a region file atomically (runs on the writer thread)
+     */
+    private void writeRegionFile(File file, byte[] data) {
+        long start = System.nanoTime();
+        try {
+            File parent = file.getParentFile();
+            if (!parent.exists()) {
+                parent.mkdirs();
+            }
+
+            File temp = new File(parent, file.getName() + ".tmp");
+            Files.write(temp.toPath(), data);
+            totalBytesWritten += data.length;
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            plugin.getMetricsManager().record(Phase.STORAGE_WRITE, System.nanoTime() - start);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not save generator region " + file.getPath(), e);
+        }
+    }
+
+    /**
+     * Delete a region file that no longer holds any generators (runs on the writer thread)
+     */
+    private void deleteRegionFile(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not delete generator region " + file.getPath(), e);
+        }
+    }
+
+    private File getRegionFile(RegionKey key) {
+        return new File(new File(directory, key.worldId().toString()), "r." + key.x() + "." + key.z() + ".lgr");
+    }
+
+    // Getters for debug output
+    public int getLoadedRegionCount() { return loadedRegions.size(); }
+    public int getPendingRegionCount() { return pendingRegions.size(); }
+    public int getDirtyRegionCount() { return dirtyRegions.size(); }
+    public int getTrackedRegionCount() { return regionGenerators.size(); }
+    public int getUnresolvedGeneratorCount() { return unresolvedGenerators.values().stream().mapToInt(List::size).sum(); }
+    public long getLastSaveNanos() { return lastSaveNanos; }
+    public int getLastSaveRegions() { return lastSaveRegions; }
+    public int getLastSaveGenerators() { return lastSaveGenerators; }
+    public long getTotalLoadNanos() { return totalLoadNanos; }
+    public int getTotalLoadedGenerators() { return totalLoadedGenerators; }
+    public long getTotalBytesWritten() { return totalBytesWritten; }
+
+    /**
+     * World and region coordinates of a region file
+     */
+    public record RegionKey(UUID worldId, int x, int z) {
+
+        public static RegionKey of(Location location) {
+            return new RegionKey(location.getWorld().getUID(), location.getBlockX() >> 9, location.getBlockZ() >> 9);
+        }
+    }
+
+    /**
+     * A generator as read from a region file
+     */
+    public record StoredGenerator(UUID ownerUUID, long position, String generatorId,
+                                  long lastGeneration, int currentGenerations, boolean working,
+                                  Map<Material, Long> storedItems) {
+    }
+}
@@ -0,0 +1,294 @@
+package com.lofigens.storage;
+
+import com.lofigens.LofiGens;
+import com.lofigens.metrics.Phase;
+import com.lofigens.models.LeaderboardEntry;
+import com.lofigens.models.LeaderboardType;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Write-behind persistence for player data, one file per player.
+ *
+ * The main thread only hands over immutable snapshots of changed players. Serializing
+ * and atomically replacing the files happens on a dedicated writer thread. Reads go
+ * through the same thread so they always see writes that are still queued.
+ */
+public class PlayerDataStore {
+
+    private final LofiGens plugin;
+    private final File directory;
+    private final File leaderboardFile;
+    private final ExecutorService writer;
+    private volatile long lastWriteNanos;
+    private volatile int lastWritePlayers;
+    private volatile long totalBytesWritten;    // Only updated by the writer thread
+
+    public PlayerDataStore(LofiGens plugin) {
+        this.plugin = plugin;
+        this.directory = new File(plugin.getDataFolder(), "playerdata");
+        this.leaderboardFile = new File(plugin.getDataFolder(), "leaderboards.yml");
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "LofiGens-PlayerDataStore");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Read a player, blocking until queued writes are done
+     *
+     * @return the stored player, or null if there is none
+     */
+    public PlayerSnapshot load(UUID playerUUID) {
+        try {
+            return loadAsync(playerUUID).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not load player data of " + playerUUID, e.getCause());
+            return null;
+        }
+    }
+
+    /**
+     * Read a player on the writer thread
+     */
+    public CompletableFuture<PlayerSnapshot> loadAsync(UUID playerUUID) {
+        return CompletableFuture.supplyAsync(() -> readFile(playerUUID), writer);
+    }
+
+    /**
+     * Queue snapshots to be written
+     */
+    public void save(Collection<PlayerSnapshot> snapshots) {
+        if (snapshots.isEmpty()) return;
+
+        List<PlayerSnapshot> copy = List.copyOf(snapshots);
+        writer.execute(() -> {
+            long start = System.nanoTime();
+            for (PlayerSnapshot snapshot : copy) {
+                writeFile(snapshot);
+            }
+            lastWritePlayers = copy.size();
+            lastWriteNanos = System.nanoTime() - start;
+        });
+    }
+
+    /**
+     * Queue the removal of a player
+     */
+    public void delete(UUID playerUUID) {
+        writer.execute(() -> deleteFile(getPlayerFile(playerUUID)));
+    }
+
+    /**
+     * Queue the removal of every player and the leaderboards
+     */
+    public void deleteAll() {
+        writer.execute(() -> {
+            File[] files = directory.listFiles((dir, name) -> name.endsWith(".yml"));
+            if (files != null) {
+                for (File file : files) {
+                    deleteFile(file);
+                }
+            }
+            deleteFile(leaderboardFile);
+        });
+    }
+
+    /**
+     * Split the old players.yml into per-player files, runs once on startup
+     *
+     * @return the migrated players
+     */
+    public List<PlayerSnapshot> migrateLegacyFile() {
+        File legacyFile = new File(plugin.getDataFolder(), "players.yml");
+        if (!legacyFile.exists()) {
+            return Collections.emptyList();
+        }
+
+        List<PlayerSnapshot> migrated = new ArrayList<>();
+        ConfigurationSection playersSection = YamlConfiguration.loadConfiguration(legacyFile).getConfigurationSection("players");
+        if (playersSection != null) {
+            for (String uuidString : playersSection.getKeys(false)) {
+                try {
+                    UUID playerUUID = UUID.fromString(uuidString);
+                    ConfigurationSection playerSection = playersSection.getConfigurationSection(uuidString);
+                    if (playerSection != null) {
+                        PlayerSnapshot snapshot = readSnapshot(playerUUID, playerSection);
+                        writeFile(snapshot);
+                        migrated.add(snapshot);
+                    }
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Invalid UUID in players.yml: " + uuidString);
+                }
+            }
+        }
+
+        if (!legacyFile.renameTo(new File(plugin.getDataFolder(), "players.yml.migrated"))) {
+            plugin.getLogger().warning("Could not rename players.yml after migrating it");
+        }
+        plugin.getLogger().info("Migrated " + migrated.size() + " players from players.yml to per-player files");
+        return migrated;
+    }
+
+    /**
+     * Read the stored leaderboards
+     */
+    public Map<LeaderboardType, List<LeaderboardEntry>> loadLeaderboards() {
+        Map<LeaderboardType, List<LeaderboardEntry>> boards = new EnumMap<>(LeaderboardType.class);
+        if (!leaderboardFile.exists()) {
+            return boards;
+        }
+
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(leaderboardFile);
+        for (LeaderboardType type : LeaderboardType.values()) {
+            List<LeaderboardEntry> board = new ArrayList<>();
+            for (String line : config.getStringList(type.name().toLowerCase())) {
+                // uuid;value;name, the name goes last since it is free text
+                String[] parts = line.split(";", 3);
+                if (parts.length < 3) continue;
+                try {
+                    board.add(new LeaderboardEntry(UUID.fromString(parts[0]), parts[2], Long.parseLong(parts[1])));
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Invalid leaderboard entry: " + line);
+                }
+            }
+            boards.put(type, board);
+        }
+        return boards;
+    }
+
+    /**
+     * Queue the leaderboards to be written
+     */
+    public void saveLeaderboards(Map<LeaderboardType, List<LeaderboardEntry>> boards) {
+        writer.execute(() -> {
+            YamlConfiguration config = new YamlConfiguration();
+            for (Map.Entry<LeaderboardType, List<LeaderboardEntry>> board : boards.entrySet()) {
+                List<String> lines = new ArrayList<>();
+                for (LeaderboardEntry entry : board.getValue()) {
+                    lines.add(entry.playerUUID() + ";" + entry.value() + ";" + entry.playerName());
+                }
+                config.set(board.getKey().name().toLowerCase(), lines);
+            }
+            writeAtomically(leaderboardFile, config.saveToString());
+        });
+    }
+
+    /**
+     * Wait for every queued write and stop the writer thread
+     */
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Timed out while writing player data");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Read a player's file (runs on the writer thread)
+     */
+    private PlayerSnapshot readFile(UUID playerUUID) {
+        File file = getPlayerFile(playerUUID);
+        if (!file.exists()) {
+            return null;
+        }
+        return readSnapshot(playerUUID, YamlConfiguration.loadConfiguration(file));
+    }
+
+    /**
+     * Serialize a player and replace their file atomically (runs on the writer thread)
+     */
+    private void writeFile(PlayerSnapshot snapshot) {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("name", snapshot.playerName());
+        config.set("generator_slots", snapshot.generatorSlots());
+        config.set("holograms_enabled", snapshot.hologramsEnabled());
+        config.set("total_items_generated", snapshot.totalItemsGenerated());
+        config.set("total_exp_generated", snapshot.totalExpGenerated());
+        config.set("jackpot_contributions", snapshot.jackpotContributions());
+        for (Map.Entry<String, Integer> entry : snapshot.generatorCounts().entrySet()) {
+            config.set("generator_counts." + entry.getKey(), entry.getValue());
+        }
+
+        writeAtomically(getPlayerFile(snapshot.playerUUID()), config.saveToString());
+    }
+
+    private void writeAtomically(File file, String contents) {
+        long start = System.nanoTime();
+        try {
+            File parent = file.getParentFile();
+            if (!parent.exists()) {
+                parent.mkdirs();
+            }
+
+            File temp = new File(parent, file.getName() + ".tmp");
+            byte[] data = contents.getBytes(StandardCharsets.UTF_8);
+            Files.write(temp.toPath(), data);
+            totalBytesWritten += data.length;
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            plugin.getMetricsManager().record(Phase.STORAGE_WRITE, System.nanoTime() - start);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not save " + file.getPath(), e);
+        }
+    }
+
+    private void deleteFile(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not delete " + file.getPath(), e);
+        }
+    }
+
+    /**
+     * Read a player from their configuration section
+     */
+    private PlayerSnapshot readSnapshot(UUID playerUUID, ConfigurationSection section) {
+        Map<String, Integer> generatorCounts = new HashMap<>();
+        ConfigurationSection generatorCountsSection = section.getConfigurationSection("generator_counts");
+        if (generatorCountsSection != null) {
+            for (String generatorId : generatorCountsSection.getKeys(false)) {
+                generatorCounts.put(generatorId, generatorCountsSection.getInt(generatorId));
+            }
+        }
+
+        return new PlayerSnapshot(
+            playerUUID,
+            section.getString("name", "Unknown"),
+            section.getInt("generator_slots", plugin.getConfigManager().getDefaultGeneratorSlots()),
+            section.getBoolean("holograms_enabled", true),
+            section.getLong("total_items_generated", 0),
+            section.getLong("total_exp_generated", 0),
+            section.getInt("jackpot_contributions", 0),
+            Map.copyOf(generatorCounts));
+    }
+
+    private File getPlayerFile(UUID playerUUID) {
+        return new File(directory, playerUUID + ".yml");
+    }
+
+    public long getLastWriteNanos() { return lastWriteNanos; }
+    public int getLastWritePlayers() { return lastWritePlayers; }
+    public long getTotalBytesWritten() { return totalBytesWritten; }
+}
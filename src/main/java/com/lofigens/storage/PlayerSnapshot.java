@@ -0,0 +1,12 @@
+package com.lofigens.storage;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable copy of a player's persisted data, handed to the writer thread
+ */
+public record PlayerSnapshot(UUID playerUUID, String playerName, int generatorSlots, boolean hologramsEnabled,
+                             long totalItemsGenerated, long totalExpGenerated, int jackpotContributions,
+                             Map<String, Integer> generatorCounts) {
+}
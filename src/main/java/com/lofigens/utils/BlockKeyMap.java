@@ -0,0 +1,301 @@
+package com.lofigens.utils;
+
+import org.bukkit.Location;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing hash map keyed by world index and packed block position.
+ *
+ * Keys are stored in primitive arrays, so lookups, inserts and removals don't allocate,
+ * and two locations in the same block always map to the same entry regardless of
+ * fractional coordinates, yaw or pitch. Collisions are resolved by linear probing and
+ * removals shift the following entries back, so there are no tombstones.
+ *
+ * Not thread-safe; all access is expected to happen on the main thread.
+ */
+public class BlockKeyMap<V> {
+    
+    private static final float LOAD_FACTOR = 0.5f;
+    
+    private int[] worlds;
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int resizeThreshold;
+    private int size;
+    
+    public BlockKeyMap() {
+        this(16);
+    }
+    
+    public BlockKeyMap(int expectedSize) {
+        allocate(tableSizeFor((int) Math.ceil(Math.max(4, expectedSize) / LOAD_FACTOR)));
+    }
+    
+    /**
+     * Get the value at a block
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int world, long key) {
+        int index = hash(world, key) & mask;
+        Object value;
+        while ((value = values[index]) != null) {
+            if (keys[index] == key && worlds[index] == world) {
+                return (V) value;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+    
+    /**
+     * Get the value at a location's block
+     */
+    public V get(Location location) {
+        return get(WorldIndex.of(location.getWorld()), keyOf(location));
+    }
+    
+    /**
+     * Check if a block has a value
+     */
+    public boolean containsKey(int world, long key) {
+        return get(world, key) != null;
+    }
+    
+    /**
+     * Set the value at a block
+     * 
+     * @return the previous value, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int world, long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("BlockKeyMap does not support null values");
+        }
+        
+        int index = hash(world, key) & mask;
+        Object existing;
+        while ((existing = values[index]) != null) {
+            if (keys[index] == key && worlds[index] == world) {
+                values[index] = value;
+                return (V) existing;
+            }
+            index = (index + 1) & mask;
+        }
+        
+        worlds[index] = world;
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeThreshold) {
+            rehash(values.length << 1);
+        }
+        return null;
+    }
+    
+    /**
+     * Set the value at a location's block
+     */
+    public V put(Location location, V value) {
+        return put(WorldIndex.of(location.getWorld()), keyOf(location), value);
+    }
+    
+    /**
+     * Remove the value at a block
+     * 
+     * @return the removed value, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int world, long key) {
+        int index = hash(world, key) & mask;
+        Object existing;
+        while ((existing = values[index]) != null) {
+            if (keys[index] == key && worlds[index] == world) {
+                size--;
+                shiftBack(index);
+                return (V) existing;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+    
+    /**
+     * Remove the value at a location's block
+     */
+    public V remove(Location location) {
+        return remove(WorldIndex.of(location.getWorld()), keyOf(location));
+    }
+    
+    /**
+     * Visit every value
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super V> action) {
+        for (Object value : values) {
+            if (value != null) {
+                action.accept((V) value);
+            }
+        }
+    }
+    
+    /**
+     * Visit every entry. The map must not be modified while visiting.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachEntry(EntryVisitor<? super V> visitor) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                visitor.accept(worlds[i], keys[i], (V) values[i]);
+            }
+        }
+    }
+    
+    /**
+     * Remove every entry matching the filter
+     * 
+     * @return the number of removed entries
+     */
+    @SuppressWarnings("unchecked")
+    public int removeIf(EntryFilter<? super V> filter) {
+        // Collect first, shifting entries back while iterating could skip or revisit them
+        int[] removeWorlds = new int[size];
+        long[] removeKeys = new long[size];
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null && filter.test(worlds[i], keys[i], (V) values[i])) {
+                removeWorlds[count] = worlds[i];
+                removeKeys[count] = keys[i];
+                count++;
+            }
+        }
+        
+        for (int i = 0; i < count; i++) {
+            remove(removeWorlds[i], removeKeys[i]);
+        }
+        return count;
+    }
+    
+    /**
+     * Copy the values into a list
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size);
+        for (Object value : values) {
+            if (value != null) {
+                result.add((V) value);
+            }
+        }
+        return result;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+    
+    /**
+     * Get the block key of a location
+     */
+    public static long keyOf(Location location) {
+        return BlockKeys.pack(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+    
+    /**
+     * Close the gap left by a removed entry by moving later entries of the probe chain back
+     */
+    private void shiftBack(int index) {
+        int last;
+        while (true) {
+            last = index;
+            index = (index + 1) & mask;
+            while (true) {
+                if (values[index] == null) {
+                    values[last] = null;
+                    return;
+                }
+                
+                int slot = hash(worlds[index], keys[index]) & mask;
+                // Stop once we find an entry whose home slot is not between the gap and its position
+                if (last <= index ? (last >= slot || slot > index) : (last >= slot && slot > index)) {
+                    break;
+                }
+                index = (index + 1) & mask;
+            }
+            
+            worlds[last] = worlds[index];
+            keys[last] = keys[index];
+            values[last] = values[index];
+        }
+    }
+    
+    private void rehash(int capacity) {
+        int[] oldWorlds = worlds;
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int index = hash(oldWorlds[i], oldKeys[i]) & mask;
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                worlds[index] = oldWorlds[i];
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        worlds = new int[capacity];
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+    
+    private static int hash(int world, long key) {
+        // Murmur3 finalizer, neighbouring blocks differ only in a few low bits of each component
+        long h = key ^ ((long) world * 0x9E3779B97F4A7C15L);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+    
+    private static int tableSizeFor(int capacity) {
+        return Math.max(4, Integer.highestOneBit(capacity - 1) << 1);
+    }
+    
+    /**
+     * Visitor for map entries
+     */
+    @FunctionalInterface
+    public interface EntryVisitor<V> {
+        void accept(int world, long key, V value);
+    }
+    
+    /**
+     * Filter for map entries
+     */
+    @FunctionalInterface
+    public interface EntryFilter<V> {
+        boolean test(int world, long key, V value);
+    }
+}
@@ -0,0 +1,46 @@
+package com.lofigens.utils;
+
+/**
+ * Packs block coordinates into a single long.
+ *
+ * Layout matches vanilla block positions: 26 bits of x, 26 bits of z and 12 bits of y,
+ * which covers the full world border and build height.
+ */
+public final class BlockKeys {
+    
+    private static final int XZ_BITS = 26;
+    private static final int Y_BITS = 12;
+    private static final long XZ_MASK = (1L << XZ_BITS) - 1;
+    private static final long Y_MASK = (1L << Y_BITS) - 1;
+    private static final int X_SHIFT = XZ_BITS + Y_BITS;
+    private static final int Z_SHIFT = Y_BITS;
+    
+    private BlockKeys() {
+    }
+    
+    /**
+     * Pack block coordinates into a long
+     */
+    public static long pack(int x, int y, int z) {
+        return ((x & XZ_MASK) << X_SHIFT) | ((z & XZ_MASK) << Z_SHIFT) | (y & Y_MASK);
+    }
+    
+    /**
+     * Pack chunk coordinates into a long
+     */
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkZ << 32) | (chunkX & 0xFFFFFFFFL);
+    }
+    
+    public static int unpackX(long key) {
+        return (int) (key >> X_SHIFT);
+    }
+    
+    public static int unpackY(long key) {
+        return (int) (key << (64 - Y_BITS) >> (64 - Y_BITS));
+    }
+    
+    public static int unpackZ(long key) {
+        return (int) (key << (64 - X_SHIFT) >> (64 - XZ_BITS));
+    }
+}
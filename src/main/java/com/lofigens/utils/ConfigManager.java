@@ -13,11 +13,9 @@ public class ConfigManager {
     
     private final LofiGens plugin;
     private FileConfiguration config;
-    private FileConfiguration playersConfig;
     private FileConfiguration jackpotConfig;
     
     private File configFile;
-    private File playersFile;
     private File jackpotFile;
     
     public ConfigManager(LofiGens plugin) {
@@ -27,7 +25,6 @@ public class ConfigManager {
     public void loadConfigs() {
         createConfigFiles();
         loadMainConfig();
-        loadPlayersConfig();
         loadJackpotConfig();
     }
     
@@ -43,18 +40,6 @@ public class ConfigManager {
             plugin.saveDefaultConfig();
         }
         
-        // Players data file
-        playersFile = new File(plugin.getDataFolder(), "players.yml");
-        if (!playersFile.exists()) {
-            try {
-                playersFile.createNewFile();
-                playersConfig = YamlConfiguration.loadConfiguration(playersFile);
-                playersConfig.save(playersFile);
-            } catch (IOException e) {
-                plugin.getLogger().log(Level.SEVERE, "Could not create players.yml!", e);
-            }
-        }
-        
         // Jackpot data file
         jackpotFile = new File(plugin.getDataFolder(), "jackpot.yml");
         if (!jackpotFile.exists()) {
@@ -90,10 +75,6 @@ public class ConfigManager {
         saveMainConfig();
     }
     
-    private void loadPlayersConfig() {
-        playersConfig = YamlConfiguration.loadConfiguration(playersFile);
-    }
-    
     private void loadJackpotConfig() {
         jackpotConfig = YamlConfiguration.loadConfiguration(jackpotFile);
     }
@@ -101,7 +82,6 @@ public class ConfigManager {
     public void reloadConfigs() {
         plugin.reloadConfig();
         loadMainConfig();
-        loadPlayersConfig();
         loadJackpotConfig();
     }
     
@@ -113,14 +93,6 @@ public class ConfigManager {
         }
     }
     
-    public void savePlayersConfig() {
-        try {
-            playersConfig.save(playersFile);
-        } catch (IOException e) {
-            plugin.getLogger().log(Level.SEVERE, "Could not save players.yml!", e);
-        }
-    }
-    
     public void saveJackpotConfig() {
         try {
             jackpotConfig.save(jackpotFile);
@@ -134,10 +106,6 @@ public class ConfigManager {
         return config;
     }
     
-    public FileConfiguration getPlayersConfig() {
-        return playersConfig;
-    }
-    
     public FileConfiguration getJackpotConfig() {
         return jackpotConfig;
     }
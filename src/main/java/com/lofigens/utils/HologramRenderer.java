@@ -0,0 +1,83 @@
+package com.lofigens.utils;
+
+import com.lofigens.models.Generator;
+import com.lofigens.models.GeneratorType;
+import com.lofigens.models.Hologram;
+
+/**
+ * Builds the lines of generator holograms.
+ *
+ * The fixed parts of every line are colorized once. A hologram is only re-rendered when a
+ * value it shows changed (countdown, remaining generations, stored items, broken state),
+ * and lines that can't change while the state stays the same are carried over.
+ */
+public class HologramRenderer {
+    
+    private static final String NEXT = MessageUtil.colorize("&7Next: &f");
+    private static final String GENERATING = MessageUtil.colorize("&aGenerating...");
+    private static final String REMAINING = MessageUtil.colorize("&7Remaining: &f");
+    private static final String BREAK_CHANCE = MessageUtil.colorize("&7Break Chance: &f");
+    private static final String STORED = MessageUtil.colorize("&7Stored: &f");
+    private static final String BROKEN = MessageUtil.colorize("&cBROKEN");
+    private static final String REPAIR = MessageUtil.colorize("&7Repair with: &f");
+    
+    /**
+     * Render a generator onto its hologram if anything shown changed
+     *
+     * @return true if the hologram text changed
+     */
+    public boolean render(Generator generator, Hologram hologram) {
+        boolean working = generator.isWorking();
+        int countdown = working ? generator.getTimeUntilNextGeneration() : -1;
+        int remaining = working && generator.getType() == GeneratorType.OVERCLOCKED
+            ? generator.getMaxGenerations() - generator.getCurrentGenerations() : 0;
+        long stored = working && generator.isCollectorMode() ? generator.getTotalStoredItems() : 0;
+        
+        // Static lines survive as long as the generator doesn't break or get repaired
+        boolean reuse = hologram.isRendered() && hologram.isRenderedWorking() == working;
+        if (!hologram.updateRenderState(working, countdown, remaining, stored)) {
+            return false;
+        }
+        
+        String[] previous = reuse ? hologram.getLines() : null;
+        return hologram.setLines(working
+            ? renderWorking(generator, previous, countdown, remaining, stored)
+            : renderBroken(generator, previous));
+    }
+    
+    private String[] renderWorking(Generator generator, String[] previous, int countdown, int remaining, long stored) {
+        GeneratorType type = generator.getType();
+        boolean detail = type == GeneratorType.OVERCLOCKED || type == GeneratorType.UNSTABLE;
+        String[] lines = new String[2 + (detail ? 1 : 0) + (generator.isCollectorMode() ? 1 : 0)];
+        
+        lines[0] = previous != null ? previous[0] : MessageUtil.colorize(generator.getName());
+        lines[1] = countdown > 0 ? NEXT + countdown + "s" : GENERATING;
+        
+        int index = 2;
+        if (type == GeneratorType.OVERCLOCKED) {
+            lines[index++] = REMAINING + remaining;
+        } else if (type == GeneratorType.UNSTABLE) {
+            lines[index] = previous != null && previous.length > index
+                ? previous[index]
+                : BREAK_CHANCE + String.format("%.1f%%", generator.getBreakChance() * 100);
+            index++;
+        }
+        
+        if (generator.isCollectorMode()) {
+            lines[index] = STORED + MessageUtil.formatNumber(stored);
+        }
+        return lines;
+    }
+    
+    private String[] renderBroken(Generator generator, String[] previous) {
+        if (previous != null) {
+            return previous; // Nothing on a broken hologram changes
+        }
+        
+        String name = MessageUtil.colorize(generator.getName());
+        if (generator.getType() == GeneratorType.UNSTABLE) {
+            return new String[] {name, BROKEN, REPAIR + generator.getRepairCost() + " items"};
+        }
+        return new String[] {name, BROKEN};
+    }
+}
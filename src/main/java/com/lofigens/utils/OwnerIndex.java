@@ -0,0 +1,187 @@
+package com.lofigens.utils;
+
+import com.lofigens.models.Generator;
+import com.lofigens.models.GeneratorType;
+
+import java.util.*;
+
+/**
+ * Placed generators grouped by owner.
+ *
+ * Each owner's generators are kept in a list together with counts per generator ID and per
+ * type, which are updated on every add and remove. Looking up an owner's generators or counts
+ * never touches the generators of other players.
+ *
+ * Not thread-safe; all access is expected to happen on the main thread.
+ */
+public class OwnerIndex {
+
+    private static final GeneratorType[] TYPES = GeneratorType.values();
+
+    private final Map<UUID, Owned> owners;
+
+    public OwnerIndex() {
+        this.owners = new HashMap<>();
+    }
+
+    /**
+     * Add a placed generator
+     */
+    public void add(Generator generator) {
+        owners.computeIfAbsent(generator.getOwnerUUID(), k -> new Owned()).add(generator);
+    }
+
+    /**
+     * Remove a placed generator
+     *
+     * @return true if the generator was indexed
+     */
+    public boolean remove(Generator generator) {
+        Owned owned = owners.get(generator.getOwnerUUID());
+        if (owned == null || !owned.remove(generator)) return false;
+
+        if (owned.generators.isEmpty()) {
+            owners.remove(generator.getOwnerUUID());
+        }
+        return true;
+    }
+
+    /**
+     * Move a generator to the count of its new type after its definition was replaced
+     */
+    public void retype(Generator generator, GeneratorType oldType) {
+        Owned owned = owners.get(generator.getOwnerUUID());
+        if (owned == null || oldType == generator.getType()) return;
+
+        owned.typeCounts[oldType.ordinal()]--;
+        owned.typeCounts[generator.getType().ordinal()]++;
+    }
+
+    /**
+     * Get an owner's generators, the returned list is a read-only view
+     */
+    public List<Generator> get(UUID ownerUUID) {
+        Owned owned = owners.get(ownerUUID);
+        return owned == null ? Collections.emptyList() : owned.view;
+    }
+
+    /**
+     * Get how many generators an owner has placed
+     */
+    public int count(UUID ownerUUID) {
+        Owned owned = owners.get(ownerUUID);
+        return owned == null ? 0 : owned.generators.size();
+    }
+
+    /**
+     * Get how many generators with a configuration ID an owner has placed
+     */
+    public int countById(UUID ownerUUID, String generatorId) {
+        Owned owned = owners.get(ownerUUID);
+        if (owned == null) return 0;
+
+        int[] count = owned.idCounts.get(generatorId);
+        return count == null ? 0 : count[0];
+    }
+
+    /**
+     * Get an owner's generator counts per configuration ID
+     */
+    public Map<String, Integer> countsById(UUID ownerUUID) {
+        Owned owned = owners.get(ownerUUID);
+        if (owned == null) return Collections.emptyMap();
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (Map.Entry<String, int[]> entry : owned.idCounts.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue()[0]);
+        }
+        return counts;
+    }
+
+    /**
+     * Get how many generators of a type an owner has placed
+     */
+    public int countByType(UUID ownerUUID, GeneratorType type) {
+        Owned owned = owners.get(ownerUUID);
+        return owned == null ? 0 : owned.typeCounts[type.ordinal()];
+    }
+
+    /**
+     * Get an owner's generator counts per type, types they don't own are left out
+     */
+    public Map<GeneratorType, Integer> countsByType(UUID ownerUUID) {
+        Owned owned = owners.get(ownerUUID);
+        if (owned == null) return Collections.emptyMap();
+
+        Map<GeneratorType, Integer> counts = new EnumMap<>(GeneratorType.class);
+        for (GeneratorType type : TYPES) {
+            if (owned.typeCounts[type.ordinal()] > 0) {
+                counts.put(type, owned.typeCounts[type.ordinal()]);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Get how many of an owner's generators are working.
+     * Generators break and get repaired on their own, so this walks the owner's generators.
+     */
+    public int countWorking(UUID ownerUUID) {
+        Owned owned = owners.get(ownerUUID);
+        if (owned == null) return 0;
+
+        int working = 0;
+        for (Generator generator : owned.generators) {
+            if (generator.isWorking()) working++;
+        }
+        return working;
+    }
+
+    /**
+     * Get how many of an owner's generators are broken
+     */
+    public int countBroken(UUID ownerUUID) {
+        return count(ownerUUID) - countWorking(ownerUUID);
+    }
+
+    /**
+     * Get the number of owners with at least one generator
+     */
+    public int getOwnerCount() {
+        return owners.size();
+    }
+
+    /**
+     * Forget every generator
+     */
+    public void clear() {
+        owners.clear();
+    }
+
+    /**
+     * The generators and counts of a single owner
+     */
+    private static class Owned {
+        private final List<Generator> generators = new ArrayList<>();
+        private final List<Generator> view = Collections.unmodifiableList(generators);
+        private final Map<String, int[]> idCounts = new HashMap<>();
+        private final int[] typeCounts = new int[TYPES.length];
+
+        void add(Generator generator) {
+            generators.add(generator);
+            idCounts.computeIfAbsent(generator.getId(), k -> new int[1])[0]++;
+            typeCounts[generator.getType().ordinal()]++;
+        }
+
+        boolean remove(Generator generator) {
+            if (!generators.remove(generator)) return false;
+
+            int[] count = idCounts.get(generator.getId());
+            if (count != null && --count[0] == 0) {
+                idCounts.remove(generator.getId());
+            }
+            typeCounts[generator.getType().ordinal()]--;
+            return true;
+        }
+    }
+}
@@ -45,6 +45,10 @@ public class TabCompleter implements org.bukkit.command.TabCompleter {
         if (args.length == 1) {
             // Main subcommands
             completions.addAll(Arrays.asList("help", "give", "slots", "reset", "holograms"));
+            if (sender.hasPermission("lofigens.admin")) {
+                completions.add("debug");
+                completions.add("stats");
+            }
             return filterCompletions(completions, args[0]);
         }
         
@@ -85,6 +89,20 @@ public class TabCompleter implements org.bukkit.command.TabCompleter {
                         return filterCompletions(completions, args[1]);
                     }
                     break;
+                    
+                case "debug":
+                    if (args.length == 2 && sender.hasPermission("lofigens.admin")) {
+                        completions.addAll(Arrays.asList("scheduler", "storage", "holograms"));
+                        return filterCompletions(completions, args[1]);
+                    }
+                    break;
+                    
+                case "stats":
+                    if (args.length == 2 && sender.hasPermission("lofigens.admin")) {
+                        completions.add("reset");
+                        return filterCompletions(completions, args[1]);
+                    }
+                    break;
             }
         }
         
@@ -0,0 +1,54 @@
+package com.lofigens.utils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Assigns each world a small integer so block keys don't have to carry a world reference
+ */
+public final class WorldIndex {
+    
+    private static final Map<UUID, Integer> indices = new ConcurrentHashMap<>();
+    private static final List<UUID> worlds = new CopyOnWriteArrayList<>();
+    
+    private WorldIndex() {
+    }
+    
+    /**
+     * Get the index of a world, assigning one the first time the world is seen
+     */
+    public static int of(World world) {
+        return of(world.getUID());
+    }
+    
+    /**
+     * Get the index of a world by its UUID
+     */
+    public static int of(UUID worldId) {
+        Integer index = indices.get(worldId);
+        if (index != null) {
+            return index;
+        }
+        
+        synchronized (worlds) {
+            return indices.computeIfAbsent(worldId, id -> {
+                worlds.add(id);
+                return worlds.size() - 1;
+            });
+        }
+    }
+    
+    /**
+     * Get the world with the given index, or null if it is not loaded
+     */
+    public static World getWorld(int index) {
+        if (index < 0 || index >= worlds.size()) return null;
+        return Bukkit.getWorld(worlds.get(index));
+    }
+}